@@ -0,0 +1,77 @@
+package com.clone.paypal.notification_service;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+// A notification moved out of the live table by NotificationRetentionJob in archive mode. Keeps its original id.
+@Entity
+@Table(name = "notification_archive")
+public class ArchivedNotification implements Persistable<Long> {
+    @Id
+    private Long id;
+    private Long userId;
+    private String message;
+    private LocalDateTime timestamp;
+    private boolean read;
+
+    public ArchivedNotification() {
+    }
+
+    public ArchivedNotification(Notification notification) {
+        this.id = notification.getId();
+        this.userId = notification.getUserId();
+        this.message = notification.getMessage();
+        this.timestamp = notification.getTimestamp();
+        this.read = notification.isRead();
+    }
+
+    // Archived rows are only ever inserted, so saveAll can persist without a select per row.
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+
+    public void setRead(boolean read) {
+        this.read = read;
+    }
+}
@@ -0,0 +1,6 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ArchivedNotificationRepository extends JpaRepository<ArchivedNotification, Long> {
+}
@@ -0,0 +1,162 @@
+package com.clone.paypal.notification_service;
+
+import com.clone.paypal.transaction_service.NotificationRequest;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+// A notification event that still failed after every retry tier. Kept until an admin replays or discards it.
+@Entity
+@Table(name = "notification_dead_letter")
+public class DeadLetter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String sourceTopic;
+    private Integer sourcePartition;
+    private Long sourceOffset;
+    private Long userId;
+    @Column(length = 1024)
+    private String message;
+    private String eventId;
+    private String type;
+    private Long amountMinorUnits;
+    @Column(length = 1024)
+    private String error;
+    private LocalDateTime failedAt;
+    private LocalDateTime replayedAt;
+
+    public DeadLetter() {
+    }
+
+    // request is null when the record couldn't be deserialized; only its coordinates and the error are kept then.
+    public DeadLetter(String sourceTopic, Integer sourcePartition, Long sourceOffset, NotificationRequest request,
+                      String error, LocalDateTime failedAt) {
+        this.sourceTopic = sourceTopic;
+        this.sourcePartition = sourcePartition;
+        this.sourceOffset = sourceOffset;
+        if (request != null) {
+            this.userId = request.getUserId();
+            this.message = request.getMessage();
+            this.eventId = request.getEventId();
+            this.type = request.getType();
+            this.amountMinorUnits = request.getAmountMinorUnits();
+        }
+        this.error = error == null || error.length() <= 1024 ? error : error.substring(0, 1024);
+        this.failedAt = failedAt;
+    }
+
+    public boolean isReplayable() {
+        return userId != null;
+    }
+
+    public NotificationRequest toNotificationRequest() {
+        NotificationRequest request = new NotificationRequest();
+        request.setUserId(userId);
+        request.setMessage(message);
+        request.setEventId(eventId);
+        request.setType(type);
+        request.setAmountMinorUnits(amountMinorUnits);
+        return request;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSourceTopic() {
+        return sourceTopic;
+    }
+
+    public void setSourceTopic(String sourceTopic) {
+        this.sourceTopic = sourceTopic;
+    }
+
+    public Integer getSourcePartition() {
+        return sourcePartition;
+    }
+
+    public void setSourcePartition(Integer sourcePartition) {
+        this.sourcePartition = sourcePartition;
+    }
+
+    public Long getSourceOffset() {
+        return sourceOffset;
+    }
+
+    public void setSourceOffset(Long sourceOffset) {
+        this.sourceOffset = sourceOffset;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getAmountMinorUnits() {
+        return amountMinorUnits;
+    }
+
+    public void setAmountMinorUnits(Long amountMinorUnits) {
+        this.amountMinorUnits = amountMinorUnits;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getFailedAt() {
+        return failedAt;
+    }
+
+    public void setFailedAt(LocalDateTime failedAt) {
+        this.failedAt = failedAt;
+    }
+
+    public LocalDateTime getReplayedAt() {
+        return replayedAt;
+    }
+
+    public void setReplayedAt(LocalDateTime replayedAt) {
+        this.replayedAt = replayedAt;
+    }
+}
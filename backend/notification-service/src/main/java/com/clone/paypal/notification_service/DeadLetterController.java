@@ -0,0 +1,69 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+
+// Admin view of notification events that exhausted every retry tier. The gateway doesn't route here; callers
+// on the internal network must also send notification.admin.token as X-Admin-Token. With no token configured
+// every request is refused.
+@RestController
+@RequestMapping("/api/notifications/dead-letters")
+public class DeadLetterController {
+    static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    @Autowired
+    private DeadLetterService deadLetterService;
+
+    @Value("${notification.admin.token:}")
+    private String adminToken;
+
+    @GetMapping
+    public ResponseEntity<List<DeadLetter>> list(@RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+                                                 @RequestParam(defaultValue = "true") boolean pendingOnly,
+                                                 @RequestParam(defaultValue = "" + DeadLetterService.DEFAULT_LIMIT) int limit) {
+        if (!isAdmin(token)) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(deadLetterService.list(pendingOnly, limit));
+    }
+
+    @PostMapping("/{id}/replay")
+    public ResponseEntity<?> replay(@RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+                                    @PathVariable Long id) {
+        if (!isAdmin(token)) {
+            return ResponseEntity.status(403).build();
+        }
+        try {
+            return deadLetterService.replay(id)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> discard(@RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+                                        @PathVariable Long id) {
+        if (!isAdmin(token)) {
+            return ResponseEntity.status(403).build();
+        }
+        deadLetterService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private boolean isAdmin(String token) {
+        if (adminToken == null || adminToken.isBlank() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,12 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+public interface DeadLetterRepository extends JpaRepository<DeadLetter, Long> {
+
+    List<DeadLetter> findAllByOrderByIdDesc(Pageable pageable);
+
+    List<DeadLetter> findByReplayedAtIsNullOrderByIdDesc(Pageable pageable);
+}
@@ -0,0 +1,63 @@
+package com.clone.paypal.notification_service;
+
+import com.clone.paypal.transaction_service.NotificationRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class DeadLetterService {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    @Autowired
+    private DeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private KafkaTemplate<String, NotificationRequest> kafkaTemplate;
+
+    @Value("${notification.retry.forward-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    // Newest first.
+    public List<DeadLetter> list(boolean pendingOnly, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return pendingOnly ? deadLetterRepository.findByReplayedAtIsNullOrderByIdDesc(page)
+                : deadLetterRepository.findAllByOrderByIdDesc(page);
+    }
+
+    // Sends the event back to notification_topic as it originally arrived. Its eventId is unchanged, so a
+    // replay of something that was stored after all is dropped as a duplicate. Empty if there is no such dead letter;
+    // IllegalArgumentException if it couldn't be deserialized, IllegalStateException if Kafka didn't take it.
+    public Optional<DeadLetter> replay(Long id) {
+        Optional<DeadLetter> found = deadLetterRepository.findById(id);
+        if (found.isEmpty()) {
+            return found;
+        }
+        DeadLetter deadLetter = found.get();
+        if (!deadLetter.isReplayable()) {
+            throw new IllegalArgumentException("Dead letter " + id + " has no readable event to replay");
+        }
+        try {
+            kafkaTemplate.send("notification_topic", deadLetter.getUserId().toString(), deadLetter.toNotificationRequest())
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying dead letter " + id, e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not replay dead letter " + id, e);
+        }
+        deadLetter.setReplayedAt(LocalDateTime.now());
+        return Optional.of(deadLetterRepository.save(deadLetter));
+    }
+
+    public void delete(Long id) {
+        deadLetterRepository.deleteById(id);
+    }
+}
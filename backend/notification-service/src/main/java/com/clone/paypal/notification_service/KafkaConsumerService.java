@@ -1,31 +1,144 @@
 package com.clone.paypal.notification_service;
 
 import com.clone.paypal.transaction_service.NotificationRequest;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+// Failure handling never blocks notification_topic: if a poll can't be stored it is retried record by record,
+// and records that still fail move to notification_failed. From there they go through the delayed retry
+// tiers (notification_failed-retry-<delay ms>) and finally notification_failed-dlt, which is stored as
+// DeadLetter rows for DeadLetterController.
 @Service
 public class KafkaConsumerService {
     private static final Logger logger = LoggerFactory.getLogger(KafkaConsumerService.class);
 
+    public static final String FAILED_TOPIC = "notification_failed";
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationStreamRegistry notificationStreamRegistry;
+
+    @Autowired
+    private RecentNotificationCache recentNotificationCache;
+
+    @Autowired
+    private NotificationCoalescer notificationCoalescer;
+
+    @Autowired
+    private DeadLetterRepository deadLetterRepository;
+
     @Autowired
-    private NotificationRepository notificationRepository;
-
-    @KafkaListener(topics = "notification_topic", groupId = "notification_group")
-    public void consume(NotificationRequest notificationRequest) {
-        logger.info("Consumed Kafka message -> Sending notification to user {}: '{}'",
-                notificationRequest.getUserId(), notificationRequest.getMessage());
-
-        Notification notification = new Notification();
-        notification.setUserId(notificationRequest.getUserId());
-        notification.setMessage(notificationRequest.getMessage());
-        notification.setTimestamp(LocalDateTime.now());
-        notification.setRead(false);
-        notificationRepository.save(notification);
+    private KafkaTemplate<String, NotificationRequest> kafkaTemplate;
+
+    // After this many failures in a row the database is assumed to be down, and the rest of the poll is
+    // forwarded without trying each record.
+    @Value("${notification.retry.max-consecutive-failures:3}")
+    private int maxConsecutiveFailures;
+
+    @Value("${notification.retry.forward-timeout-ms:10000}")
+    private long forwardTimeoutMs;
+
+    // Batch listener (kafkaListenerContainerFactory): one call per poll, stored with one batched insert.
+    // Records that couldn't be deserialized arrive as nulls and are skipped, as are duplicates; bursts of
+    // payments to one user within the poll are stored as a single summary (see NotificationCoalescer).
+    @KafkaListener(topics = "notification_topic", groupId = "notification_group",
+            containerFactory = "kafkaListenerContainerFactory", batch = "true")
+    public void consume(List<NotificationRequest> notificationRequests) {
+        List<NotificationRequest> fresh = notificationCoalescer.withoutDuplicates(notificationRequests);
+        try {
+            int stored = deliver(notificationCoalescer.coalesce(fresh, LocalDateTime.now()));
+            notificationCoalescer.markSeen(fresh);
+            logger.info("Consumed {} Kafka messages -> stored {} notifications", notificationRequests.size(), stored);
+        } catch (RuntimeException e) {
+            logger.warn("Storing a poll of {} notifications failed, retrying one by one: {}", fresh.size(), e.getMessage());
+            storeEachOrForward(fresh);
+        }
+    }
+
+    // First stop after a failed poll. A failure here sends the record to the next retry tier; the last one
+    // ends in the dead-letter topic.
+    @RetryableTopic(attempts = "${notification.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${notification.retry.delay-ms:1000}",
+                    multiplierExpression = "${notification.retry.multiplier:5}",
+                    maxDelayExpression = "${notification.retry.max-delay-ms:60000}"),
+            numPartitions = "${notification.topic.partitions:6}", replicationFactor = "1",
+            kafkaTemplate = "kafkaTemplate", listenerContainerFactory = "notificationRecordListenerFactory")
+    @KafkaListener(topics = FAILED_TOPIC, groupId = "notification_retry_group",
+            containerFactory = "notificationRecordListenerFactory", batch = "false")
+    public void consumeFailed(NotificationRequest request) {
+        List<NotificationRequest> fresh = notificationCoalescer.withoutDuplicates(List.of(request));
+        deliver(notificationCoalescer.coalesce(fresh, LocalDateTime.now()));
+        notificationCoalescer.markSeen(fresh);
+    }
+
+    @DltHandler
+    public void consumeDeadLetter(ConsumerRecord<String, NotificationRequest> record,
+                                  @Header(name = KafkaHeaders.EXCEPTION_MESSAGE, required = false) String error) {
+        deadLetterRepository.save(new DeadLetter(record.topic(), record.partition(), record.offset(), record.value(),
+                error, LocalDateTime.now()));
+        logger.error("Notification event for user {} moved to the dead-letter table: {}",
+                record.value() == null ? null : record.value().getUserId(), error);
+    }
+
+    private int deliver(List<Notification> notifications) {
+        List<Notification> stored = notificationService.store(notifications);
+        for (Notification notification : stored) {
+            recentNotificationCache.add(notification);
+            notificationStreamRegistry.publish(notification);
+        }
+        return stored.size();
+    }
+
+    // If forwarding fails too (Kafka itself is unavailable) the listener throws and the poll is redelivered;
+    // whatever was already stored is then dropped as a duplicate.
+    private void storeEachOrForward(List<NotificationRequest> requests) {
+        List<CompletableFuture<?>> forwarded = new ArrayList<>();
+        int consecutiveFailures = 0;
+        for (NotificationRequest request : requests) {
+            if (consecutiveFailures < maxConsecutiveFailures) {
+                try {
+                    deliver(notificationCoalescer.coalesce(List.of(request), LocalDateTime.now()));
+                    notificationCoalescer.markSeen(List.of(request));
+                    consecutiveFailures = 0;
+                    continue;
+                } catch (RuntimeException e) {
+                    consecutiveFailures++;
+                    logger.warn("Storing notification for user {} failed: {}", request.getUserId(), e.getMessage());
+                }
+            }
+            String key = request.getUserId() == null ? null : request.getUserId().toString();
+            forwarded.add(kafkaTemplate.send(FAILED_TOPIC, key, request));
+        }
+        if (forwarded.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(forwarded.toArray(CompletableFuture[]::new)).get(forwardTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while forwarding failed notifications", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not forward failed notifications", e);
+        }
+        logger.warn("Forwarded {} notifications to {}", forwarded.size(), FAILED_TOPIC);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+
+// Two listener factories, both configured from spring.kafka.listener.*. Each sets its listener type
+// explicitly rather than relying on spring.kafka.listener.type, so the retry topics (which only support
+// one record at a time) can never end up with the batch factory.
+@Configuration
+public class KafkaListenerConfig {
+
+    // notification_topic: one call per poll.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer, ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    // notification_failed, its retry tiers and the dead-letter topic.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> notificationRecordListenerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer, ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(false);
+        return factory;
+    }
+}
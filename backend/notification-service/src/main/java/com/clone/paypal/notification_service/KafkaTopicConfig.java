@@ -0,0 +1,17 @@
+package com.clone.paypal.notification_service;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    // Created (or grown) on startup, so the batch listener's consumer threads each get partitions to read.
+    @Bean
+    public NewTopic notificationTopic(@Value("${notification.topic.partitions:6}") int partitions) {
+        return TopicBuilder.name("notification_topic").partitions(partitions).replicas(1).build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.clone.paypal.notification_service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Either ids or upTo: mark the listed notifications, or everything at or before upTo.
+public class MarkReadRequest {
+    private List<Long> ids;
+    private LocalDateTime upTo;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public LocalDateTime getUpTo() {
+        return upTo;
+    }
+
+    public void setUpTo(LocalDateTime upTo) {
+        this.upTo = upTo;
+    }
+}
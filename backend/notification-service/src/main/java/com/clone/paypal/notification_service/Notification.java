@@ -4,12 +4,21 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "notification", indexes = {
+        @Index(name = "idx_notification_user_ts", columnList = "userId, timestamp, id"),
+        @Index(name = "idx_notification_ts", columnList = "timestamp")
+})
 public class Notification {
+    // A pooled sequence hands out 50 ids per round trip and, unlike IDENTITY, lets Hibernate batch the inserts.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
     private Long id;
     private Long userId;
     private String message;
@@ -0,0 +1,102 @@
+package com.clone.paypal.notification_service;
+
+import com.clone.paypal.transaction_service.NotificationRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Turns one poll of notification events into the notifications to store. Events already seen (the outbox
+// relay re-sends after a timeout, Kafka redelivers after a rebalance) are dropped by eventId, and a burst of
+// payment events for the same user and type within the poll becomes a single summary notification.
+@Component
+public class NotificationCoalescer {
+
+    private final Cache<String, Boolean> seenEventIds;
+    private final boolean enabled;
+    private final int minEvents;
+
+    public NotificationCoalescer(@Value("${notification.coalesce.enabled:true}") boolean enabled,
+                                 @Value("${notification.coalesce.min-events:3}") int minEvents,
+                                 @Value("${notification.coalesce.dedup-max-size:1000000}") long dedupMaxSize,
+                                 @Value("${notification.coalesce.dedup-ttl-minutes:60}") long dedupTtlMinutes) {
+        this.enabled = enabled;
+        this.minEvents = minEvents;
+        this.seenEventIds = Caffeine.newBuilder()
+                .maximumSize(dedupMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(dedupTtlMinutes))
+                .build();
+    }
+
+    // Drops nulls (records that couldn't be deserialized), events seen in an earlier poll and repeats within this one.
+    public List<NotificationRequest> withoutDuplicates(List<NotificationRequest> requests) {
+        Set<String> inBatch = new HashSet<>();
+        List<NotificationRequest> fresh = new ArrayList<>(requests.size());
+        for (NotificationRequest request : requests) {
+            if (request == null) {
+                continue;
+            }
+            String eventId = request.getEventId();
+            if (eventId != null && (seenEventIds.getIfPresent(eventId) != null || !inBatch.add(eventId))) {
+                continue;
+            }
+            fresh.add(request);
+        }
+        return fresh;
+    }
+
+    // Keeps the order of the first event in each group; anything that isn't a payment passes through unchanged.
+    public List<Notification> coalesce(List<NotificationRequest> requests, LocalDateTime now) {
+        Map<Object, List<NotificationRequest>> groups = new LinkedHashMap<>();
+        for (NotificationRequest request : requests) {
+            Object key = isCoalescable(request) ? List.of(request.getUserId(), request.getType()) : new Object();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(request);
+        }
+        List<Notification> notifications = new ArrayList<>(groups.size());
+        for (List<NotificationRequest> group : groups.values()) {
+            if (group.size() >= minEvents) {
+                notifications.add(new Notification(group.get(0).getUserId(), summary(group), now, false));
+            } else {
+                for (NotificationRequest request : group) {
+                    notifications.add(new Notification(request.getUserId(), request.getMessage(), now, false));
+                }
+            }
+        }
+        return notifications;
+    }
+
+    // Called once the notifications are stored, so a failed poll is redelivered without being dropped as a duplicate.
+    public void markSeen(Collection<NotificationRequest> requests) {
+        for (NotificationRequest request : requests) {
+            if (request.getEventId() != null) {
+                seenEventIds.put(request.getEventId(), Boolean.TRUE);
+            }
+        }
+    }
+
+    private boolean isCoalescable(NotificationRequest request) {
+        return enabled
+                && request.getUserId() != null
+                && request.getAmountMinorUnits() != null
+                && (NotificationRequest.PAYMENT_SENT.equals(request.getType())
+                    || NotificationRequest.PAYMENT_RECEIVED.equals(request.getType()));
+    }
+
+    private static String summary(List<NotificationRequest> group) {
+        long total = group.stream().map(NotificationRequest::getAmountMinorUnits).filter(Objects::nonNull)
+                .mapToLong(Long::longValue).sum();
+        String verb = NotificationRequest.PAYMENT_SENT.equals(group.get(0).getType()) ? "sent" : "received";
+        return "You " + verb + " " + group.size() + " payments totalling " + BigDecimal.valueOf(total, 2).toPlainString() + ".";
+    }
+}
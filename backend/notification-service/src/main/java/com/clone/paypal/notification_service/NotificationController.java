@@ -1,8 +1,10 @@
 package com.clone.paypal.notification_service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.List;
 import java.util.Map;
 
@@ -13,6 +15,18 @@ public class NotificationController {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationStreamRegistry notificationStreamRegistry;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    // Server-Sent Events: each new notification for the user arrives as a "notification" event.
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@RequestParam Long userId) {
+        return notificationStreamRegistry.subscribe(userId);
+    }
+
     @GetMapping("/user")
     public ResponseEntity<?> getNotificationsByUserId(@RequestParam Long id) {
         try {
@@ -23,4 +37,34 @@ public class NotificationController {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to fetch notifications"));
         }
     }
-}
\ No newline at end of file
+
+    // Newest first. Pass the returned nextCursor to fetch the following page.
+    @GetMapping("/user/page")
+    public ResponseEntity<NotificationPage> getNotificationPage(@RequestParam Long id,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "" + NotificationService.DEFAULT_LIMIT) int limit) {
+        try {
+            return ResponseEntity.ok(notificationService.page(id, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/user/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(@RequestParam Long id) {
+        return ResponseEntity.ok(Map.of("unread", notificationService.unreadCount(id)));
+    }
+
+    @PostMapping("/user/read")
+    public ResponseEntity<Map<String, Long>> markRead(@RequestParam Long id, @RequestBody MarkReadRequest request) {
+        int updated;
+        if (request.getIds() != null) {
+            updated = notificationService.markRead(id, request.getIds());
+        } else if (request.getUpTo() != null) {
+            updated = notificationService.markReadUpTo(id, request.getUpTo());
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(Map.of("updated", (long) updated, "unread", notificationService.unreadCount(id)));
+    }
+}
@@ -0,0 +1,29 @@
+package com.clone.paypal.notification_service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Opaque page cursor: the (timestamp, id) of the last notification on a page, base64url-encoded.
+public record NotificationCursor(LocalDateTime timestamp, Long id) {
+
+    public static NotificationCursor of(Notification notification) {
+        return new NotificationCursor(notification.getTimestamp(), notification.getId());
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Throws IllegalArgumentException for anything encode() couldn't have produced.
+    public static NotificationCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new NotificationCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
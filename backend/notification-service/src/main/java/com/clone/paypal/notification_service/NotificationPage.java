@@ -0,0 +1,21 @@
+package com.clone.paypal.notification_service;
+
+import java.util.List;
+
+public class NotificationPage {
+    private List<Notification> notifications;
+    private String nextCursor; // Null on the last page
+
+    public NotificationPage(List<Notification> notifications, String nextCursor) {
+        this.notifications = notifications;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Notification> getNotifications() {
+        return notifications;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
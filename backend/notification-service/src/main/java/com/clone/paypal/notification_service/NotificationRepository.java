@@ -1,8 +1,36 @@
 package com.clone.paypal.notification_service;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserIdOrderByTimestampDesc(Long userId);
-}
\ No newline at end of file
+
+    long countByUserIdAndReadFalse(Long userId);
+
+    // Oldest first, for NotificationRetentionJob.
+    List<Notification> findByTimestampBeforeOrderByTimestampAsc(LocalDateTime cutoff, Pageable pageable);
+
+    // Keyset page, newest first; a null cursor starts from the newest notification.
+    @Query("select n from Notification n where n.userId = :userId"
+            + " and (:beforeTimestamp is null or n.timestamp < :beforeTimestamp"
+            + " or (n.timestamp = :beforeTimestamp and n.id < :beforeId))"
+            + " order by n.timestamp desc, n.id desc")
+    List<Notification> findPage(@Param("userId") Long userId, @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Both return the number of notifications that were unread before the update.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Notification n set n.read = true where n.userId = :userId and n.id in :ids and n.read = false")
+    int markReadByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Notification n set n.read = true where n.userId = :userId and n.timestamp <= :upTo and n.read = false")
+    int markReadUpTo(@Param("userId") Long userId, @Param("upTo") LocalDateTime upTo);
+}
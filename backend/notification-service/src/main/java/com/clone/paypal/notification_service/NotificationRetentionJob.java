@@ -0,0 +1,80 @@
+package com.clone.paypal.notification_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Removes notifications older than notification.retention.max-age-days, oldest first, in batches of
+// batch-size rows per transaction and at most max-batches per run, so the live table and its indexes
+// stay small without one long-running delete. In "archive" mode the rows are copied to
+// notification_archive first. Unread counters are lowered for any unread notification removed.
+@Component
+public class NotificationRetentionJob {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionJob.class);
+
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private ArchivedNotificationRepository archivedNotificationRepository;
+    @Autowired private UnreadCountRepository unreadCountRepository;
+    @Autowired private RecentNotificationCache recentNotificationCache;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Value("${notification.retention.max-age-days:90}")
+    private long maxAgeDays;
+
+    // "delete" or "archive"
+    @Value("${notification.retention.mode:delete}")
+    private String mode;
+
+    @Value("${notification.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${notification.retention.max-batches:100}")
+    private int maxBatches;
+
+    @Scheduled(fixedDelayString = "${notification.retention.interval-ms:3600000}")
+    public void run() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(maxAgeDays);
+        int removed = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int batch = removeBatch(cutoff);
+            removed += batch;
+            if (batch < batchSize) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            logger.info("Retention removed {} notifications older than {}", removed, cutoff);
+        }
+    }
+
+    // Returns the number of notifications removed.
+    int removeBatch(LocalDateTime cutoff) {
+        Integer removed = transactionTemplate.execute(status -> {
+            List<Notification> expired = notificationRepository.findByTimestampBeforeOrderByTimestampAsc(cutoff, PageRequest.of(0, batchSize));
+            if (expired.isEmpty()) {
+                return 0;
+            }
+            if ("archive".equalsIgnoreCase(mode)) {
+                archivedNotificationRepository.saveAll(expired.stream().map(ArchivedNotification::new).toList());
+            }
+            notificationRepository.deleteAllByIdInBatch(expired.stream().map(Notification::getId).toList());
+
+            Map<Long, Long> unreadByUser = expired.stream()
+                    .filter(n -> n.getUserId() != null && !n.isRead())
+                    .collect(Collectors.groupingBy(Notification::getUserId, Collectors.counting()));
+            unreadByUser.forEach((userId, unread) -> unreadCountRepository.add(userId, -unread));
+            recentNotificationCache.evictAfterCommit(expired.stream().map(Notification::getUserId).distinct().toList());
+            return expired.size();
+        });
+        return removed == null ? 0 : removed;
+    }
+}
@@ -0,0 +1,126 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class NotificationService {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UnreadCountRepository unreadCountRepository;
+
+    @Autowired
+    private RecentNotificationCache recentNotificationCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Stores new (unread) notifications and bumps each user's unread counter in the same transaction.
+    @Transactional
+    public List<Notification> store(List<Notification> notifications) {
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+        Map<Long, Long> unreadByUser = saved.stream()
+                .filter(n -> n.getUserId() != null && !n.isRead())
+                .collect(Collectors.groupingBy(Notification::getUserId, Collectors.counting()));
+        unreadByUser.forEach(this::addUnread);
+        return saved;
+    }
+
+    public NotificationPage page(Long userId, String cursor, int limit) {
+        NotificationCursor before = cursor == null || cursor.isBlank() ? null : NotificationCursor.decode(cursor);
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (before == null && size <= recentNotificationCache.getCapacity()) {
+            return firstPageFromMemory(userId, size);
+        }
+        // One extra row tells us whether there is a next page.
+        List<Notification> rows = notificationRepository.findPage(userId,
+                before == null ? null : before.timestamp(), before == null ? null : before.id(), PageRequest.of(0, size + 1));
+        if (rows.size() <= size) {
+            return new NotificationPage(rows, null);
+        }
+        List<Notification> notifications = new ArrayList<>(rows.subList(0, size));
+        return new NotificationPage(notifications, NotificationCursor.of(notifications.get(size - 1)).encode());
+    }
+
+    private NotificationPage firstPageFromMemory(Long userId, int size) {
+        int capacity = recentNotificationCache.getCapacity();
+        RecentNotifications recent = recentNotificationCache.get(userId,
+                id -> notificationRepository.findPage(id, null, null, PageRequest.of(0, capacity + 1)));
+        List<Notification> rows = recent.newest(size + 1);
+        // A buffer that has dropped entries ends where the older history in the database begins.
+        boolean more = rows.size() > size || (!recent.isComplete() && rows.size() == size);
+        List<Notification> notifications = rows.size() > size ? rows.subList(0, size) : rows;
+        return new NotificationPage(notifications, more ? NotificationCursor.of(notifications.get(size - 1)).encode() : null);
+    }
+
+    public long unreadCount(Long userId) {
+        return unreadCountRepository.findById(userId)
+                .or(() -> {
+                    createCounter(userId);
+                    return unreadCountRepository.findById(userId);
+                })
+                .map(UnreadCount::getUnread)
+                .orElse(0L);
+    }
+
+    // Each is one UPDATE over the (userId, timestamp) index; returns how many notifications changed.
+    @Transactional
+    public int markRead(Long userId, Collection<Long> ids) {
+        return ids.isEmpty() ? 0 : subtractUnread(userId, notificationRepository.markReadByIds(userId, ids));
+    }
+
+    @Transactional
+    public int markReadUpTo(Long userId, LocalDateTime upTo) {
+        return subtractUnread(userId, notificationRepository.markReadUpTo(userId, upTo));
+    }
+
+    private int subtractUnread(Long userId, int marked) {
+        if (marked > 0) {
+            recentNotificationCache.evictAfterCommit(List.of(userId));
+            addUnread(userId, (long) -marked);
+        }
+        return marked;
+    }
+
+    private void addUnread(Long userId, Long delta) {
+        if (unreadCountRepository.add(userId, delta) == 0) {
+            // First time we see this user: create the counter from what is already committed, then apply this change.
+            createCounter(userId);
+            unreadCountRepository.add(userId, delta);
+        }
+    }
+
+    // Counts the user's committed unread notifications into a new counter row, in a transaction of its own.
+    // A listener batch and GET /unread-count can both find the counter missing; whichever inserts second gets a
+    // duplicate key, which here only means the other one's row is used, instead of failing the caller's transaction.
+    private void createCounter(Long userId) {
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                if (!unreadCountRepository.existsById(userId)) {
+                    unreadCountRepository.insert(userId, notificationRepository.countByUserIdAndReadFalse(userId));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently.
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.clone.paypal.notification_service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Open SSE connections per user, so new notifications are pushed instead of polled.
+// Connections live in this instance only; the consumer that stores a notification pushes it.
+//
+// publish() only queues: events are written by a small bounded pool, so a client that stops reading can't
+// hold up the Kafka listener. Each connection has its own queue, drained by at most one pool thread at a
+// time so its events stay in order. A connection that falls max-pending events behind is completed; the
+// browser reconnects and catches up from /user/page.
+@Component
+public class NotificationStreamRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamRegistry.class);
+
+    private final Map<Long, Set<Stream>> streams = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final int maxPending;
+
+    @Value("${notification.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    public NotificationStreamRegistry(@Value("${notification.stream.send-threads:4}") int sendThreads,
+                                      @Value("${notification.stream.queue-capacity:10000}") int queueCapacity,
+                                      @Value("${notification.stream.max-pending:100}") int maxPending) {
+        this.maxPending = maxPending;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(sendThreads, sendThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-stream-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        // EventSource reconnects by itself once the timeout closes the stream.
+        return register(userId, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter register(Long userId, SseEmitter emitter) {
+        Stream stream = new Stream(userId, emitter);
+        streams.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>()).add(stream);
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(() -> remove(stream));
+        emitter.onError(e -> remove(stream));
+        return emitter;
+    }
+
+    public void publish(Notification notification) {
+        Set<Stream> userStreams = streams.get(notification.getUserId());
+        if (userStreams == null) {
+            return;
+        }
+        for (Stream stream : userStreams) {
+            stream.enqueue(SseEmitter.event()
+                    .name("notification")
+                    .id(String.valueOf(notification.getId()))
+                    .data(notification));
+        }
+    }
+
+    public int connectionCount() {
+        return streams.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // Proxies and load balancers drop idle connections; a comment every so often keeps them open and
+    // also finds clients that went away without closing.
+    @Scheduled(fixedDelayString = "${notification.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        streams.values().forEach(userStreams ->
+                userStreams.forEach(stream -> stream.enqueue(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        streams.values().forEach(userStreams -> userStreams.forEach(stream -> stream.close(null)));
+    }
+
+    private void remove(Stream stream) {
+        streams.computeIfPresent(stream.userId, (id, userStreams) -> {
+            userStreams.remove(stream);
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+
+    private final class Stream {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        // Events queued and not yet drained; whoever moves it off zero schedules the drain.
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Stream(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (size.get() >= maxPending) {
+                logger.info("Closing notification stream for user {}: {} events behind", userId, maxPending);
+                close(null);
+                return;
+            }
+            pending.add(event);
+            if (size.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    close(null);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event = pending.poll();
+                if (!closed.get()) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        close(e);
+                    }
+                }
+            } while (size.decrementAndGet() > 0);
+        }
+
+        void close(Throwable error) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            remove(this);
+            pending.clear();
+            if (error != null) {
+                emitter.completeWithError(error);
+            } else {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.clone.paypal.notification_service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+// Per-user RecentNotifications for recently active users, so the first page of notifications is served
+// from memory. A buffer is loaded from the database on its first read; after that KafkaConsumerService
+// keeps it current. Anything that changes stored notifications (mark-read, retention) drops the buffer.
+@Component
+public class RecentNotificationCache {
+
+    private final Cache<Long, RecentNotifications> buffers;
+    private final int capacity;
+
+    public RecentNotificationCache(@Value("${notification.recent.capacity:50}") int capacity,
+                                   @Value("${notification.recent.max-users:100000}") long maxUsers,
+                                   @Value("${notification.recent.idle-minutes:30}") long idleMinutes) {
+        this.capacity = capacity;
+        this.buffers = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // loader returns up to capacity + 1 of the user's newest notifications.
+    RecentNotifications get(Long userId, Function<Long, List<Notification>> loader) {
+        return buffers.get(userId, id -> new RecentNotifications(capacity, loader.apply(id)));
+    }
+
+    // Users without a buffer are skipped; theirs is loaded from the database when first read.
+    public void add(Notification notification) {
+        RecentNotifications buffer = buffers.getIfPresent(notification.getUserId());
+        if (buffer != null) {
+            buffer.add(notification);
+        }
+    }
+
+    // Evicts now and again once the surrounding transaction commits, so a buffer reloaded in between
+    // can't keep the old state.
+    public void evictAfterCommit(Collection<Long> userIds) {
+        buffers.invalidateAll(userIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    buffers.invalidateAll(userIds);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.clone.paypal.notification_service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+// Ring buffer of one user's newest notifications, newest first. complete is true while the buffer holds
+// the user's entire history, i.e. nothing has been pushed out of it yet.
+class RecentNotifications {
+    private final int capacity;
+    private final Deque<Notification> notifications;
+    private boolean complete;
+
+    // newestFirst may hold one more row than capacity, which tells us there is older history.
+    RecentNotifications(int capacity, List<Notification> newestFirst) {
+        this.capacity = capacity;
+        this.notifications = new ArrayDeque<>(capacity);
+        this.complete = newestFirst.size() <= capacity;
+        newestFirst.stream().limit(capacity).forEach(notifications::addLast);
+    }
+
+    synchronized void add(Notification notification) {
+        // The buffer may have been loaded after this notification was committed.
+        if (notifications.stream().anyMatch(n -> n.getId().equals(notification.getId()))) {
+            return;
+        }
+        notifications.addFirst(notification);
+        if (notifications.size() > capacity) {
+            notifications.removeLast();
+            complete = false;
+        }
+    }
+
+    synchronized List<Notification> newest(int limit) {
+        return notifications.stream().limit(limit).toList();
+    }
+
+    synchronized boolean isComplete() {
+        return complete;
+    }
+}
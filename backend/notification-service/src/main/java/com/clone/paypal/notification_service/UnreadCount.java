@@ -0,0 +1,39 @@
+package com.clone.paypal.notification_service;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Number of unread notifications per user, kept up to date as notifications are stored and read,
+// so the badge count never has to count rows.
+@Entity
+@Table(name = "notification_unread_count")
+public class UnreadCount {
+    @Id
+    private Long userId;
+    private long unread;
+
+    public UnreadCount() {
+    }
+
+    public UnreadCount(Long userId, long unread) {
+        this.userId = userId;
+        this.unread = unread;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getUnread() {
+        return unread;
+    }
+
+    public void setUnread(long unread) {
+        this.unread = unread;
+    }
+}
@@ -0,0 +1,21 @@
+package com.clone.paypal.notification_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface UnreadCountRepository extends JpaRepository<UnreadCount, Long> {
+
+    // Returns 0 if the user has no counter yet. Never goes below zero.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update UnreadCount c set c.unread = case when c.unread + :delta > 0 then c.unread + :delta else 0 end"
+            + " where c.userId = :userId")
+    int add(@Param("userId") Long userId, @Param("delta") long delta);
+
+    // A plain insert: a counter created concurrently makes it fail on the primary key. save() would merge
+    // into that counter and overwrite it.
+    @Modifying
+    @Query(value = "insert into notification_unread_count (user_id, unread) values (:userId, :unread)", nativeQuery = true)
+    int insert(@Param("userId") Long userId, @Param("unread") long unread);
+}
@@ -1,8 +1,14 @@
 package com.clone.paypal.transaction_service;
 
 public class NotificationRequest {
+    public static final String PAYMENT_SENT = "PAYMENT_SENT";
+    public static final String PAYMENT_RECEIVED = "PAYMENT_RECEIVED";
+
     private Long userId;
     private String message;
+    private String eventId; // Stable across re-sends, so the consumer can drop duplicates
+    private String type;
+    private Long amountMinorUnits;
     public NotificationRequest() {}
 
     public Long getUserId() {
@@ -20,4 +26,28 @@ public class NotificationRequest {
     public void setMessage(String message) {
         this.message = message;
     }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getAmountMinorUnits() {
+        return amountMinorUnits;
+    }
+
+    public void setAmountMinorUnits(Long amountMinorUnits) {
+        this.amountMinorUnits = amountMinorUnits;
+    }
 }
@@ -0,0 +1,153 @@
+package com.clone.paypal.transaction_service;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Compact binary form of NotificationRequest on notification_topic, shared with notification-service.
+// Layout (version 2; version 1 is the same without the last three fields):
+//   byte     version
+//   byte     flags: bit 0 = userId, 1 = message, 2 = eventId, 3 = type, 4 = amountMinorUnits present
+//   varlong  userId, zigzag-encoded
+//   varint   message length in UTF-8 bytes, followed by the bytes
+//   varint   eventId length, followed by the bytes
+//   varint   type length, followed by the bytes
+//   varlong  amountMinorUnits, zigzag-encoded
+// Varints use 7 bits per byte, low bits first, high bit set on all but the last byte.
+public final class NotificationRequestCodec {
+    public static final byte VERSION = 2;
+
+    private static final int HAS_USER_ID = 1;
+    private static final int HAS_MESSAGE = 2;
+    private static final int HAS_EVENT_ID = 4;
+    private static final int HAS_TYPE = 8;
+    private static final int HAS_AMOUNT = 16;
+
+    private NotificationRequestCodec() {
+    }
+
+    public static byte[] encode(NotificationRequest request) {
+        Long userId = request.getUserId();
+        Long amount = request.getAmountMinorUnits();
+        byte[] message = utf8(request.getMessage());
+        byte[] eventId = utf8(request.getEventId());
+        byte[] type = utf8(request.getType());
+        int flags = (userId != null ? HAS_USER_ID : 0) | (message != null ? HAS_MESSAGE : 0)
+                | (eventId != null ? HAS_EVENT_ID : 0) | (type != null ? HAS_TYPE : 0) | (amount != null ? HAS_AMOUNT : 0);
+
+        int size = 2 + bytesSize(message) + bytesSize(eventId) + bytesSize(type);
+        if (userId != null) {
+            size += varLongSize(zigZag(userId));
+        }
+        if (amount != null) {
+            size += varLongSize(zigZag(amount));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION);
+        buffer.put((byte) flags);
+        if (userId != null) {
+            putVarLong(buffer, zigZag(userId));
+        }
+        putBytes(buffer, message);
+        putBytes(buffer, eventId);
+        putBytes(buffer, type);
+        if (amount != null) {
+            putVarLong(buffer, zigZag(amount));
+        }
+        return buffer.array();
+    }
+
+    // Reads versions 1 and 2. Throws IllegalArgumentException for an unknown version or a truncated record.
+    public static NotificationRequest decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try {
+            byte version = buffer.get();
+            if (version != 1 && version != VERSION) {
+                throw new IllegalArgumentException("Unsupported notification encoding version " + version);
+            }
+            int flags = buffer.get();
+            NotificationRequest request = new NotificationRequest();
+            if ((flags & HAS_USER_ID) != 0) {
+                request.setUserId(unZigZag(getVarLong(buffer)));
+            }
+            if ((flags & HAS_MESSAGE) != 0) {
+                request.setMessage(getString(buffer));
+            }
+            if ((flags & HAS_EVENT_ID) != 0) {
+                request.setEventId(getString(buffer));
+            }
+            if ((flags & HAS_TYPE) != 0) {
+                request.setType(getString(buffer));
+            }
+            if ((flags & HAS_AMOUNT) != 0) {
+                request.setAmountMinorUnits(unZigZag(getVarLong(buffer)));
+            }
+            return request;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated notification record", e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int bytesSize(byte[] bytes) {
+        return bytes == null ? 0 : varLongSize(bytes.length) + bytes.length;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes != null) {
+            putVarLong(buffer, bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        long length = getVarLong(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Truncated notification field");
+        }
+        String value = new String(buffer.array(), buffer.position(), (int) length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + (int) length);
+        return value;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
@@ -1,7 +1,42 @@
+CREATE SEQUENCE IF NOT EXISTS notification_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS notification (
-  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  id BIGINT PRIMARY KEY,
+  user_id BIGINT,
+  message VARCHAR(255),
+  timestamp TIMESTAMP,
+  read BOOLEAN
+);
+
+-- Backs the keyset-paginated listing and the mark-read updates, which are always per user.
+CREATE INDEX IF NOT EXISTS idx_notification_user_ts ON notification (user_id, timestamp, id);
+-- Lets the retention job find the oldest notifications without a full scan.
+CREATE INDEX IF NOT EXISTS idx_notification_ts ON notification (timestamp);
+
+CREATE TABLE IF NOT EXISTS notification_unread_count (
+  user_id BIGINT PRIMARY KEY,
+  unread BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS notification_archive (
+  id BIGINT PRIMARY KEY,
   user_id BIGINT,
   message VARCHAR(255),
   timestamp TIMESTAMP,
   read BOOLEAN
 );
+
+CREATE TABLE IF NOT EXISTS notification_dead_letter (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  source_topic VARCHAR(255),
+  source_partition INT,
+  source_offset BIGINT,
+  user_id BIGINT,
+  message VARCHAR(1024),
+  event_id VARCHAR(255),
+  type VARCHAR(255),
+  amount_minor_units BIGINT,
+  error VARCHAR(1024),
+  failed_at TIMESTAMP,
+  replayed_at TIMESTAMP
+);
@@ -0,0 +1,69 @@
+package com.clone.paypal.notification_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DeadLetterControllerTests {
+
+	private static final String TOKEN = "s3cret";
+
+	private final DeadLetterService deadLetterService = mock(DeadLetterService.class);
+	private final DeadLetterController controller = new DeadLetterController();
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(controller, "deadLetterService", deadLetterService);
+		ReflectionTestUtils.setField(controller, "adminToken", TOKEN);
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+		when(deadLetterService.list(anyBoolean(), anyInt())).thenReturn(List.of());
+	}
+
+	@Test
+	void refusesCallersWithoutTheAdminToken() throws Exception {
+		mockMvc.perform(get("/api/notifications/dead-letters")).andExpect(status().isForbidden());
+		mockMvc.perform(get("/api/notifications/dead-letters").header(DeadLetterController.ADMIN_TOKEN_HEADER, "guess"))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(post("/api/notifications/dead-letters/1/replay")).andExpect(status().isForbidden());
+		mockMvc.perform(delete("/api/notifications/dead-letters/1")).andExpect(status().isForbidden());
+
+		verify(deadLetterService, never()).list(anyBoolean(), anyInt());
+		verify(deadLetterService, never()).replay(anyLong());
+		verify(deadLetterService, never()).delete(anyLong());
+	}
+
+	@Test
+	void acceptsTheAdminToken() throws Exception {
+		mockMvc.perform(get("/api/notifications/dead-letters").header(DeadLetterController.ADMIN_TOKEN_HEADER, TOKEN))
+				.andExpect(status().isOk());
+		mockMvc.perform(delete("/api/notifications/dead-letters/1").header(DeadLetterController.ADMIN_TOKEN_HEADER, TOKEN))
+				.andExpect(status().isNoContent());
+
+		verify(deadLetterService).delete(1L);
+	}
+
+	@Test
+	void noConfiguredTokenDisablesTheEndpoints() throws Exception {
+		ReflectionTestUtils.setField(controller, "adminToken", "");
+
+		mockMvc.perform(get("/api/notifications/dead-letters").header(DeadLetterController.ADMIN_TOKEN_HEADER, ""))
+				.andExpect(status().isForbidden());
+	}
+}
@@ -0,0 +1,112 @@
+package com.clone.paypal.notification_service;
+
+import com.clone.paypal.transaction_service.NotificationRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaConsumerServiceTests {
+
+	@Mock
+	private NotificationService notificationService;
+
+	@Mock
+	private NotificationStreamRegistry notificationStreamRegistry;
+
+	@Mock
+	private RecentNotificationCache recentNotificationCache;
+
+	@Mock
+	private DeadLetterRepository deadLetterRepository;
+
+	@Mock
+	private KafkaTemplate<String, NotificationRequest> kafkaTemplate;
+
+	@Spy
+	private NotificationCoalescer notificationCoalescer = new NotificationCoalescer(true, 3, 1000, 60);
+
+	@InjectMocks
+	private KafkaConsumerService kafkaConsumerService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(kafkaConsumerService, "maxConsecutiveFailures", 3);
+		ReflectionTestUtils.setField(kafkaConsumerService, "forwardTimeoutMs", 1000L);
+	}
+
+	@Test
+	void forwardsOnlyThePoisonRecordWhenAPollFails() {
+		NotificationRequest poison = notification("3", 3L, "poison");
+		when(notificationService.store(anyList())).thenAnswer(invocation -> {
+			List<Notification> notifications = invocation.getArgument(0);
+			if (notifications.size() > 1 || "poison".equals(notifications.get(0).getMessage())) {
+				throw new IllegalStateException("constraint violation");
+			}
+			return notifications;
+		});
+		when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+		kafkaConsumerService.consume(List.of(notification("1", 1L, "a"), notification("2", 2L, "b"), poison, notification("4", 4L, "d")));
+
+		verify(kafkaTemplate).send(KafkaConsumerService.FAILED_TOPIC, "3", poison);
+		verify(notificationStreamRegistry, times(3)).publish(any());
+		// The stored ones are remembered, so a redelivered poll doesn't store them twice.
+		assertThat(notificationCoalescer.withoutDuplicates(List.of(notification("1", 1L, "a"), poison))).containsExactly(poison);
+	}
+
+	@Test
+	void stopsTryingRecordsOnceTheDatabaseLooksDown() {
+		when(notificationService.store(anyList())).thenThrow(new IllegalStateException("connection refused"));
+		when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+		List<NotificationRequest> poll = IntStream.range(0, 10)
+				.mapToObj(i -> notification(String.valueOf(i), (long) i, "m" + i))
+				.toList();
+
+		kafkaConsumerService.consume(poll);
+
+		// One attempt for the whole poll, then three single records before giving up on the database.
+		verify(notificationService, times(4)).store(anyList());
+		verify(kafkaTemplate, times(10)).send(eq(KafkaConsumerService.FAILED_TOPIC), any(), any());
+	}
+
+	@Test
+	void failsThePollWhenForwardingFails() {
+		when(notificationService.store(anyList())).thenThrow(new IllegalStateException("connection refused"));
+		when(kafkaTemplate.send(anyString(), any(), any()))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+		assertThatThrownBy(() -> kafkaConsumerService.consume(List.of(notification("1", 1L, "a"))))
+				.isInstanceOf(IllegalStateException.class);
+		verify(notificationStreamRegistry, never()).publish(any());
+	}
+
+	private static NotificationRequest notification(String eventId, Long userId, String message) {
+		NotificationRequest request = new NotificationRequest();
+		request.setEventId(eventId);
+		request.setUserId(userId);
+		request.setMessage(message);
+		return request;
+	}
+}
@@ -0,0 +1,72 @@
+package com.clone.paypal.notification_service;
+
+import com.clone.paypal.transaction_service.NotificationRequest;
+import com.clone.paypal.transaction_service.NotificationRequestCodec;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Publishes a burst of notification events and reports how fast the batch listener stores them.
+@SpringBootTest(properties = {
+		"spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+		"eureka.client.enabled=false"
+})
+@EmbeddedKafka(partitions = 6, topics = "notification_topic")
+class KafkaConsumerServiceThroughputTests {
+
+	private static final int USERS = 200;
+	private static final int EVENTS = 20_000;
+
+	@Autowired
+	private NotificationRepository notificationRepository;
+
+	@Autowired
+	private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+	@Test
+	void storesABurstOfEvents() throws Exception {
+		Map<String, Object> props = KafkaTestUtils.producerProps(embeddedKafkaBroker);
+		props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+		props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+		props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+
+		long start = System.nanoTime();
+		try (Producer<String, byte[]> producer = new KafkaProducer<>(props)) {
+			for (int i = 0; i < EVENTS; i++) {
+				long userId = i % USERS;
+				byte[] value = NotificationRequestCodec.encode(notification(userId, "You received " + i + ".00 from user 1."));
+				producer.send(new ProducerRecord<>("notification_topic", String.valueOf(userId), value));
+			}
+		}
+
+		long deadline = System.nanoTime() + 60_000_000_000L;
+		while (notificationRepository.count() < EVENTS && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+		long elapsedNanos = System.nanoTime() - start;
+
+		assertThat(notificationRepository.count()).isEqualTo(EVENTS);
+		System.out.printf("Stored %d notifications in %d ms (%.0f events/s)%n",
+				EVENTS, elapsedNanos / 1_000_000, EVENTS / (elapsedNanos / 1e9));
+	}
+
+	private static NotificationRequest notification(Long userId, String message) {
+		NotificationRequest request = new NotificationRequest();
+		request.setUserId(userId);
+		request.setMessage(message);
+		return request;
+	}
+}
@@ -0,0 +1,49 @@
+package com.clone.paypal.notification_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Loads the whole context and checks which kind of listener each topic ended up with: batch for
+// notification_topic, one record at a time for notification_failed, its retry tiers and the dead-letter topic.
+@SpringBootTest(properties = {
+		"spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+		"eureka.client.enabled=false"
+})
+@EmbeddedKafka(partitions = 1, topics = "notification_topic")
+class KafkaListenerConfigTests {
+
+	@Autowired
+	private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+	@Test
+	void notificationTopicIsConsumedInBatchesAndRetryTopicsRecordByRecord() {
+		List<MessageListenerContainer> containers = List.copyOf(kafkaListenerEndpointRegistry.getAllListenerContainers());
+		assertThat(containers).hasSizeGreaterThan(2);
+
+		for (MessageListenerContainer container : containers) {
+			List<String> topics = Arrays.asList(container.getContainerProperties().getTopics());
+			Object listener = container.getContainerProperties().getMessageListener();
+			if (topics.contains("notification_topic")) {
+				assertThat(listener).as("listener for %s", topics).isInstanceOf(BatchMessageListener.class);
+			} else {
+				assertThat(topics).allMatch(topic -> topic.startsWith(KafkaConsumerService.FAILED_TOPIC));
+				assertThat(listener).as("listener for %s", topics)
+						.isInstanceOf(MessageListener.class)
+						.isNotInstanceOf(BatchMessageListener.class);
+			}
+		}
+		assertThat(containers).anySatisfy(container ->
+				assertThat(container.getContainerProperties().getTopics()).contains(KafkaConsumerService.FAILED_TOPIC + "-dlt"));
+	}
+}
@@ -0,0 +1,83 @@
+package com.clone.paypal.notification_service;
+
+import com.clone.paypal.transaction_service.NotificationRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationCoalescerTests {
+
+	private final NotificationCoalescer coalescer = new NotificationCoalescer(true, 3, 1000, 60);
+
+	@Test
+	void summarisesABurstOfPaymentsToOneUser() {
+		List<NotificationRequest> requests = List.of(
+				payment("1:PAYMENT_RECEIVED", 7L, NotificationRequest.PAYMENT_RECEIVED, 1000L),
+				payment("2:PAYMENT_RECEIVED", 7L, NotificationRequest.PAYMENT_RECEIVED, 250L),
+				payment("3:PAYMENT_SENT", 8L, NotificationRequest.PAYMENT_SENT, 99L),
+				payment("4:PAYMENT_RECEIVED", 7L, NotificationRequest.PAYMENT_RECEIVED, 5L));
+
+		List<Notification> notifications = coalescer.coalesce(requests, LocalDateTime.now());
+
+		assertThat(notifications).extracting(Notification::getUserId).containsExactly(7L, 8L);
+		assertThat(notifications.get(0).getMessage()).isEqualTo("You received 3 payments totalling 12.55.");
+		assertThat(notifications.get(1).getMessage()).isEqualTo("message 3:PAYMENT_SENT");
+	}
+
+	@Test
+	void leavesSmallGroupsAndOtherEventsAlone() {
+		NotificationRequest plain = new NotificationRequest();
+		plain.setUserId(7L);
+		plain.setMessage("Welcome!");
+		List<NotificationRequest> requests = List.of(
+				payment("1:PAYMENT_SENT", 7L, NotificationRequest.PAYMENT_SENT, 1000L),
+				plain,
+				payment("2:PAYMENT_SENT", 7L, NotificationRequest.PAYMENT_SENT, 1000L));
+
+		List<Notification> notifications = coalescer.coalesce(requests, LocalDateTime.now());
+
+		assertThat(notifications).extracting(Notification::getMessage)
+				.containsExactly("message 1:PAYMENT_SENT", "message 2:PAYMENT_SENT", "Welcome!");
+	}
+
+	@Test
+	void dropsDuplicatesWithinAndAcrossPolls() {
+		NotificationRequest first = payment("1:PAYMENT_SENT", 7L, NotificationRequest.PAYMENT_SENT, 100L);
+		NotificationRequest second = payment("2:PAYMENT_SENT", 7L, NotificationRequest.PAYMENT_SENT, 100L);
+
+		List<NotificationRequest> fresh = coalescer.withoutDuplicates(Arrays.asList(first, null, first, second));
+		assertThat(fresh).containsExactly(first, second);
+
+		// Nothing is remembered until the poll has been stored.
+		assertThat(coalescer.withoutDuplicates(List.of(first))).containsExactly(first);
+
+		coalescer.markSeen(fresh);
+		NotificationRequest third = payment("3:PAYMENT_SENT", 7L, NotificationRequest.PAYMENT_SENT, 100L);
+		assertThat(coalescer.withoutDuplicates(List.of(second, third, first))).containsExactly(third);
+	}
+
+	@Test
+	void passesEverythingThroughWhenDisabled() {
+		NotificationCoalescer disabled = new NotificationCoalescer(false, 3, 1000, 60);
+		List<NotificationRequest> requests = List.of(
+				payment("1:PAYMENT_RECEIVED", 7L, NotificationRequest.PAYMENT_RECEIVED, 100L),
+				payment("2:PAYMENT_RECEIVED", 7L, NotificationRequest.PAYMENT_RECEIVED, 100L),
+				payment("3:PAYMENT_RECEIVED", 7L, NotificationRequest.PAYMENT_RECEIVED, 100L));
+
+		assertThat(disabled.coalesce(requests, LocalDateTime.now())).hasSize(3);
+	}
+
+	private static NotificationRequest payment(String eventId, Long userId, String type, Long amountMinorUnits) {
+		NotificationRequest request = new NotificationRequest();
+		request.setEventId(eventId);
+		request.setUserId(userId);
+		request.setType(type);
+		request.setAmountMinorUnits(amountMinorUnits);
+		request.setMessage("message " + eventId);
+		return request;
+	}
+}
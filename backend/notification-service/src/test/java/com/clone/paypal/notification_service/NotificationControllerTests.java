@@ -0,0 +1,62 @@
+package com.clone.paypal.notification_service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class NotificationControllerTests {
+
+	private final NotificationStreamRegistry registry = new NotificationStreamRegistry(2, 100, 100);
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(registry, "timeoutMs", 60_000L);
+		NotificationController controller = new NotificationController();
+		ReflectionTestUtils.setField(controller, "notificationStreamRegistry", registry);
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		registry.shutdown();
+	}
+
+	@Test
+	void streamPushesTheUsersNotificationsAsServerSentEvents() throws Exception {
+		MockHttpServletResponse response = mockMvc.perform(get("/api/notifications/stream")
+						.param("userId", "7")
+						.accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(request().asyncStarted())
+				.andReturn()
+				.getResponse();
+		assertThat(registry.connectionCount()).isEqualTo(1);
+
+		registry.publish(NotificationStreamRegistryTests.notification(42L));
+		registry.publish(NotificationStreamRegistryTests.notification(43L));
+
+		String body = awaitBodyContaining(response, "id:43");
+		assertThat(response.getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+		assertThat(body).contains("event:notification\nid:42\ndata:{", "\"message\":\"Payment 42\"");
+		assertThat(body.indexOf("id:42")).isLessThan(body.indexOf("id:43"));
+	}
+
+	private static String awaitBodyContaining(MockHttpServletResponse response, String text) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!response.getContentAsString().contains(text) && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		return response.getContentAsString();
+	}
+}
@@ -0,0 +1,142 @@
+package com.clone.paypal.notification_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({NotificationService.class, RecentNotificationCache.class, NotificationRetentionJob.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // counters are created in their own transaction, so data must be committed
+class NotificationServiceTests {
+
+	private static final LocalDateTime NOON = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+	@Autowired
+	private NotificationService notificationService;
+
+	@Autowired
+	private RecentNotificationCache recentNotificationCache;
+
+	@Autowired
+	private NotificationRetentionJob notificationRetentionJob;
+
+	@Autowired
+	private NotificationRepository notificationRepository;
+
+	@Autowired
+	private UnreadCountRepository unreadCountRepository;
+
+	@BeforeEach
+	void setUp() {
+		notificationRepository.deleteAll();
+		unreadCountRepository.deleteAll();
+	}
+
+	@Test
+	void maintainsTheUnreadCounter() {
+		List<Notification> stored = notificationService.store(List.of(
+				notification(1L, NOON), notification(1L, NOON.plusMinutes(1)), notification(1L, NOON.plusMinutes(2)),
+				notification(2L, NOON)));
+		assertThat(notificationService.unreadCount(1L)).isEqualTo(3);
+		assertThat(notificationService.unreadCount(2L)).isEqualTo(1);
+
+		assertThat(notificationService.markRead(1L, List.of(stored.get(0).getId(), stored.get(3).getId()))).isEqualTo(1);
+		assertThat(notificationService.unreadCount(1L)).isEqualTo(2);
+		assertThat(notificationService.unreadCount(2L)).isEqualTo(1);
+
+		assertThat(notificationService.markReadUpTo(1L, NOON.plusMinutes(1))).isEqualTo(1);
+		assertThat(notificationService.markReadUpTo(1L, NOON.plusMinutes(1))).isZero();
+		assertThat(notificationService.unreadCount(1L)).isEqualTo(1);
+
+		notificationService.store(List.of(notification(1L, NOON.plusMinutes(3))));
+		assertThat(notificationService.unreadCount(1L)).isEqualTo(2);
+	}
+
+	// The listener storing a user's first notifications and the badge asking for their count both find no
+	// counter and race to create it; neither may fail, and the count must come out right.
+	@Test
+	void concurrentFirstUseCreatesOneCounter() throws Exception {
+		int threads = 8;
+		int rounds = 25;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (long userId = 100; userId < 100 + rounds; userId++) {
+				Long user = userId;
+				List<Future<?>> futures = new ArrayList<>();
+				for (int t = 0; t < threads; t++) {
+					futures.add(t % 2 == 0
+							? executor.submit(() -> notificationService.store(List.of(notification(user, NOON))))
+							: executor.submit(() -> notificationService.unreadCount(user)));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+				assertThat(notificationService.unreadCount(user)).isEqualTo(threads / 2);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void pagesNewestFirst() {
+		notificationService.store(List.of(
+				notification(3L, NOON), notification(3L, NOON.plusMinutes(1)), notification(3L, NOON.plusMinutes(1)),
+				notification(4L, NOON.plusMinutes(5))));
+
+		NotificationPage first = notificationService.page(3L, null, 2);
+		NotificationPage second = notificationService.page(3L, first.getNextCursor(), 2);
+
+		assertThat(first.getNotifications()).extracting(Notification::getTimestamp)
+				.containsExactly(NOON.plusMinutes(1), NOON.plusMinutes(1));
+		assertThat(first.getNextCursor()).isNotNull();
+		assertThat(second.getNotifications()).extracting(Notification::getTimestamp).containsExactly(NOON);
+		assertThat(second.getNextCursor()).isNull();
+	}
+
+	@Test
+	void servesTheFirstPageFromTheRecentBuffer() {
+		notificationService.store(List.of(notification(5L, NOON), notification(5L, NOON.plusMinutes(1))));
+		assertThat(notificationService.page(5L, null, 10).getNotifications()).hasSize(2);
+
+		// Stored behind the buffer's back: only the consumer's add makes it visible.
+		Notification newest = notificationService.store(List.of(notification(5L, NOON.plusMinutes(2)))).get(0);
+		assertThat(notificationService.page(5L, null, 10).getNotifications()).hasSize(2);
+		recentNotificationCache.add(newest);
+
+		NotificationPage page = notificationService.page(5L, null, 10);
+		assertThat(page.getNotifications()).extracting(Notification::getId).first().isEqualTo(newest.getId());
+		assertThat(page.getNotifications()).hasSize(3);
+		assertThat(page.getNextCursor()).isNull();
+	}
+
+	@Test
+	void retentionRemovesOldNotificationsAndTheirUnreadCounts() {
+		LocalDateTime old = LocalDateTime.now().minusDays(365);
+		notificationService.store(List.of(notification(6L, old), notification(6L, old.plusMinutes(1)),
+				notification(6L, LocalDateTime.now())));
+		assertThat(notificationService.unreadCount(6L)).isEqualTo(3);
+
+		notificationRetentionJob.run();
+
+		assertThat(notificationRepository.findByUserIdOrderByTimestampDesc(6L)).hasSize(1);
+		assertThat(notificationService.unreadCount(6L)).isEqualTo(1);
+	}
+
+	private static Notification notification(Long userId, LocalDateTime timestamp) {
+		return new Notification(userId, "You received 25.00 from user 9.", timestamp, false);
+	}
+}
@@ -0,0 +1,137 @@
+package com.clone.paypal.notification_service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationStreamRegistryTests {
+
+	private static final Long USER_ID = 7L;
+
+	// Two sending threads; a connection is closed once three events are waiting for it.
+	private final NotificationStreamRegistry registry = new NotificationStreamRegistry(2, 100, 3);
+
+	@AfterEach
+	void tearDown() {
+		registry.shutdown();
+	}
+
+	@Test
+	void aStuckClientNeitherBlocksPublishingNorOtherClients() throws Exception {
+		CountDownLatch unblock = new CountDownLatch(1);
+		RecordingEmitter stuck = new RecordingEmitter(unblock, null);
+		RecordingEmitter fast = new RecordingEmitter(null, null);
+		registry.register(USER_ID, stuck);
+		registry.register(USER_ID, fast);
+
+		registry.publish(notification(1L));
+		assertThat(stuck.awaitIds(1)).isTrue();
+
+		long start = System.nanoTime();
+		for (long id = 2; id <= 5; id++) {
+			registry.publish(notification(id));
+		}
+		long publishMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		unblock.countDown();
+
+		assertThat(publishMillis).isLessThan(1000);
+		assertThat(fast.awaitIds(5)).isTrue();
+		assertThat(fast.ids()).containsExactly(1L, 2L, 3L, 4L, 5L);
+		// The stuck client got the first event, fell three behind and was closed; it reconnects and pages.
+		assertThat(stuck.completed.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(stuck.ids()).containsExactly(1L);
+		assertThat(registry.connectionCount()).isEqualTo(1);
+	}
+
+	@Test
+	void aClientThatWentAwayIsDropped() throws Exception {
+		RecordingEmitter gone = new RecordingEmitter(null, new IOException("Broken pipe"));
+		registry.register(USER_ID, gone);
+		assertThat(registry.connectionCount()).isEqualTo(1);
+
+		registry.heartbeat();
+
+		assertThat(gone.completed.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(registry.connectionCount()).isZero();
+	}
+
+	@Test
+	void subscribeUsesTheConfiguredTimeout() {
+		ReflectionTestUtils.setField(registry, "timeoutMs", 1234L);
+
+		SseEmitter emitter = registry.subscribe(USER_ID);
+
+		assertThat(emitter.getTimeout()).isEqualTo(1234L);
+		assertThat(registry.connectionCount()).isEqualTo(1);
+	}
+
+	static Notification notification(Long id) {
+		Notification notification = new Notification(USER_ID, "Payment " + id, LocalDateTime.now(), false);
+		notification.setId(id);
+		return notification;
+	}
+
+	// Records the notifications written to it. Optionally blocks every write until released, or fails them.
+	private static class RecordingEmitter extends SseEmitter {
+		private final List<Long> ids = new CopyOnWriteArrayList<>();
+		private final CountDownLatch completed = new CountDownLatch(1);
+		private final CountDownLatch blockUntil;
+		private final IOException failure;
+
+		RecordingEmitter(CountDownLatch blockUntil, IOException failure) {
+			this.blockUntil = blockUntil;
+			this.failure = failure;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (failure != null) {
+				throw failure;
+			}
+			builder.build().stream()
+					.filter(part -> part.getData() instanceof Notification)
+					.forEach(part -> ids.add(((Notification) part.getData()).getId()));
+			if (blockUntil != null) {
+				try {
+					blockUntil.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		@Override
+		public void complete() {
+			completed.countDown();
+			super.complete();
+		}
+
+		@Override
+		public void completeWithError(Throwable ex) {
+			completed.countDown();
+			super.completeWithError(ex);
+		}
+
+		boolean awaitIds(int count) throws InterruptedException {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (ids.size() < count && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			return ids.size() >= count;
+		}
+
+		List<Long> ids() {
+			return ids;
+		}
+	}
+}
@@ -0,0 +1,8 @@
+package com.clone.paypal.transaction_service;
+
+// Another instance is still processing a payment with the same Idempotency-Key.
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String idempotencyKey) {
+        super("A payment with Idempotency-Key " + idempotencyKey + " is already in progress");
+    }
+}
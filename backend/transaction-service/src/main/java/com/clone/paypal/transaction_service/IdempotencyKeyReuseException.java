@@ -0,0 +1,8 @@
+package com.clone.paypal.transaction_service;
+
+// The Idempotency-Key was already used for a payment with a different sender, recipient or amount.
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String idempotencyKey) {
+        super("Idempotency-Key " + idempotencyKey + " was already used for a different payment");
+    }
+}
@@ -0,0 +1,79 @@
+package com.clone.paypal.transaction_service;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Claims an Idempotency-Key for one sender. transactionId stays null while the payment is in flight, and
+// leaseExpiresAt says until when the claiming instance owns it.
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt"))
+public class IdempotencyRecord {
+    @Id
+    private String idempotencyKey;
+    private Long transactionId;
+    @Column(length = 64)
+    private String requestHash; // SHA-256 of the request, see IdempotencyService.fingerprint
+    private LocalDateTime createdAt;
+    private LocalDateTime leaseExpiresAt;
+    private LocalDateTime expiresAt;
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String idempotencyKey, String requestHash, LocalDateTime createdAt,
+                             LocalDateTime leaseExpiresAt, LocalDateTime expiresAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.createdAt = createdAt;
+        this.leaseExpiresAt = leaseExpiresAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,30 @@
+package com.clone.paypal.transaction_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    // Takes over an unfinished claim whose lease has run out. Returns 0 if the claim finished or another
+    // request took it over first.
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.leaseExpiresAt = :leaseExpiresAt where r.idempotencyKey = :key " +
+            "and r.transactionId is null and (r.leaseExpiresAt is null or r.leaseExpiresAt < :now)")
+    int takeOver(@Param("key") String key, @Param("now") LocalDateTime now, @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    // Records the payment's Transaction against its key. Returns 0 if another request already recorded one.
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.transactionId = :transactionId where r.idempotencyKey = :key and r.transactionId is null")
+    int assignTransaction(@Param("key") String key, @Param("transactionId") Long transactionId);
+}
@@ -0,0 +1,209 @@
+package com.clone.paypal.transaction_service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+// Makes POST /api/transactions safe to retry. Keys are scoped to the sender, and a key resolves to
+// the Transaction its first request produced, whether that payment completed or failed. Reusing a key
+// for a different payment is rejected.
+//  - hotStore: recently finished keys on this instance, answered without touching the database
+//  - inFlight: concurrent retries on this instance share the first request's future
+//  - idempotency_keys: the primary key claim stops other instances from running the same payment,
+//    and keeps finished keys until they expire. An unfinished claim is leased; once the lease runs out
+//    (the claiming instance died or hung mid-payment) the next retry takes the claim over.
+// Taking over is safe even if the first attempt got as far as the transfer: the payment gets the claimed
+// key, which wallet-service uses as the transfer id and applies once, and the key's transactionId is
+// written in the same database transaction as the Transaction, so only one attempt can record it.
+@Service
+public class IdempotencyService {
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, Finished> hotStore;
+    private final Duration ttl;
+    private final Duration lease;
+
+    public IdempotencyService(@Value("${transaction.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${transaction.idempotency.lease-seconds:60}") long leaseSeconds,
+                              @Value("${transaction.idempotency.hot-store.max-size:100000}") long hotStoreMaxSize,
+                              @Value("${transaction.idempotency.hot-store.ttl-minutes:10}") long hotStoreTtlMinutes) {
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.hotStore = Caffeine.newBuilder()
+                .maximumSize(hotStoreMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(Math.min(hotStoreTtlMinutes, ttl.toMinutes())))
+                .build();
+    }
+
+    // Identifies what a request pays: who, to whom and how much. Two requests with the same fingerprint
+    // are the same payment.
+    public static String fingerprint(TransactionRequest request) {
+        String recipient = request.getRecipientEmail() == null ? "" : request.getRecipientEmail().trim().toLowerCase(Locale.ROOT);
+        String amount = request.getAmount() == null ? "" : request.getAmount().getMinorUnits() + " " + request.getAmount().getCurrency();
+        String canonical = request.getSenderId() + "\n" + recipient + "\n" + amount;
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Runs the payment at most once per (sender, key). The payment is given the claimed key, which it must
+    // pass on to the transfer and to NotificationOutboxService.saveWithNotifications. Throws
+    // IdempotencyKeyReuseException if the key belongs to a different payment, and IdempotencyConflictException
+    // if another instance holds the key's lease and hasn't finished yet.
+    public CompletableFuture<Transaction> execute(Long senderId, String idempotencyKey, String requestHash,
+                                                  Function<String, CompletableFuture<Transaction>> payment) {
+        String key = senderId + ":" + idempotencyKey;
+        Finished done = hotStore.getIfPresent(key);
+        if (done != null) {
+            checkSameRequest(done.requestHash(), requestHash, idempotencyKey);
+            return CompletableFuture.completedFuture(done.transaction());
+        }
+
+        InFlight pending = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            checkSameRequest(existing.requestHash(), requestHash, idempotencyKey);
+            return existing.result();
+        }
+        CompletableFuture<Transaction> result = pending.result();
+
+        try {
+            Optional<Transaction> stored = claim(key, idempotencyKey, requestHash);
+            if (stored.isPresent()) {
+                finish(key, pending, stored.get());
+                return result;
+            }
+        } catch (RuntimeException e) {
+            inFlight.remove(key, pending);
+            result.completeExceptionally(e);
+            throw e;
+        }
+
+        CompletableFuture<Transaction> started;
+        try {
+            started = payment.apply(key);
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((transaction, error) -> {
+            try {
+                if (error != null || transaction == null || transaction.getId() == null) {
+                    Optional<Transaction> recorded = release(key, error);
+                    if (recorded.isPresent()) {
+                        finish(key, pending, recorded.get());
+                        return;
+                    }
+                    throw error != null ? new IllegalStateException(error) : new IllegalStateException("Payment produced no transaction");
+                }
+                finish(key, pending, transaction);
+            } catch (RuntimeException e) {
+                inFlight.remove(key, pending);
+                result.completeExceptionally(error != null ? error : e);
+            }
+        });
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.idempotency.cleanup-interval-ms:600000}")
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    // Returns the stored result if the key has already been used, otherwise claims it for this request.
+    private Optional<Transaction> claim(String key, String idempotencyKey, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<IdempotencyRecord> record = idempotencyRecordRepository.findById(key);
+        if (record.isPresent() && record.get().getExpiresAt().isBefore(now)) {
+            idempotencyRecordRepository.deleteById(key);
+            record = Optional.empty();
+        }
+        if (record.isEmpty()) {
+            try {
+                idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(key, requestHash, now, now.plus(lease), now.plus(ttl)));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                // Another instance claimed it between our read and our insert.
+                record = idempotencyRecordRepository.findById(key);
+            }
+        }
+        if (record.isEmpty()) {
+            throw new IdempotencyConflictException(idempotencyKey);
+        }
+        checkSameRequest(record.get().getRequestHash(), requestHash, idempotencyKey);
+
+        Long transactionId = record.get().getTransactionId();
+        if (transactionId != null) {
+            return Optional.of(transactionRepository.findById(transactionId)
+                    .orElseThrow(() -> new IdempotencyConflictException(idempotencyKey)));
+        }
+        if (idempotencyRecordRepository.takeOver(key, now, now.plus(lease)) == 1) {
+            return Optional.empty();
+        }
+        throw new IdempotencyConflictException(idempotencyKey);
+    }
+
+    // The payment ended without a Transaction of its own. If a retry took the claim over and recorded the
+    // payment first, that Transaction is returned. If no money moved the client may retry with the same key;
+    // if the transfer went through but wasn't recorded, the claim is pinned for the rest of its ttl so a
+    // retry can never pay a second time.
+    private Optional<Transaction> release(String key, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof IdempotencyConflictException) {
+            return idempotencyRecordRepository.findById(key)
+                    .map(IdempotencyRecord::getTransactionId)
+                    .flatMap(transactionRepository::findById);
+        }
+        if (cause instanceof UnrecordedTransferException) {
+            idempotencyRecordRepository.findById(key).ifPresent(record -> {
+                record.setLeaseExpiresAt(record.getExpiresAt());
+                idempotencyRecordRepository.save(record);
+            });
+        } else {
+            idempotencyRecordRepository.deleteById(key);
+        }
+        return Optional.empty();
+    }
+
+    private void finish(String key, InFlight pending, Transaction transaction) {
+        hotStore.put(key, new Finished(pending.requestHash(), transaction));
+        inFlight.remove(key, pending);
+        pending.result().complete(transaction);
+    }
+
+    // Claims made before request hashes were stored have none, and match any request.
+    private static void checkSameRequest(String storedHash, String requestHash, String idempotencyKey) {
+        if (storedHash != null && !storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReuseException(idempotencyKey);
+        }
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<Transaction> result) {}
+
+    private record Finished(String requestHash, Transaction transaction) {}
+}
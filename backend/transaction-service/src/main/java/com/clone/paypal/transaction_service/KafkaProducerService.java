@@ -2,15 +2,18 @@ package com.clone.paypal.transaction_service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class KafkaProducerService {
-    private static final String TOPIC = "notification_topic";
+    public static final String TOPIC = "notification_topic";
     @Autowired
     private KafkaTemplate<String, NotificationRequest> kafkaTemplate;
 
-    public void sendNotificationEvent(NotificationRequest request) {
-        kafkaTemplate.send(TOPIC, request);
+    // Keyed by userId, so all of a user's notifications land on one partition, in order.
+    public CompletableFuture<SendResult<String, NotificationRequest>> sendNotificationEvent(NotificationRequest request) {
+        return kafkaTemplate.send(TOPIC, String.valueOf(request.getUserId()), request);
     }
 }
@@ -0,0 +1,157 @@
+package com.clone.paypal.transaction_service;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.math.BigDecimal;
+
+// Immutable amount of money held as a long count of minor units (paise for INR) plus a currency code.
+// Arithmetic and formatting never allocate intermediate BigDecimals; toBigDecimal() is only for the
+// DECIMAL columns at the persistence boundary. On the wire it is a plain JSON number, e.g. 25.00.
+@JsonSerialize(using = MoneyJsonSerializer.class)
+@JsonDeserialize(using = MoneyJsonDeserializer.class)
+public final class Money implements Comparable<Money> {
+    public static final String DEFAULT_CURRENCY = "INR";
+    public static final int SCALE = 2;
+    private static final long MINOR_PER_MAJOR = 100;
+
+    public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+    private final long minorUnits;
+    private final String currency;
+
+    private Money(long minorUnits, String currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return ofMinor(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        return minorUnits == 0 && DEFAULT_CURRENCY.equals(currency) ? ZERO : new Money(minorUnits, currency);
+    }
+
+    // Throws ArithmeticException if the amount has more than two decimal places.
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.movePointRight(SCALE).longValueExact());
+    }
+
+    // Parses "25", "25.5" or "-25.50" directly into minor units. Falls back to BigDecimal only for
+    // exponent notation.
+    public static Money parse(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+        long major = 0;
+        int digits = 0;
+        for (; i < length && Character.isDigit(text.charAt(i)); i++, digits++) {
+            major = Math.addExact(Math.multiplyExact(major, 10), text.charAt(i) - '0');
+        }
+        long minor = 0;
+        int fractionDigits = 0;
+        if (i < length && text.charAt(i) == '.') {
+            for (i++; i < length && Character.isDigit(text.charAt(i)); i++, fractionDigits++) {
+                if (fractionDigits >= SCALE) {
+                    if (text.charAt(i) != '0') {
+                        throw new ArithmeticException("More than " + SCALE + " decimal places: " + text);
+                    }
+                    continue;
+                }
+                minor = minor * 10 + (text.charAt(i) - '0');
+            }
+        }
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            return of(new BigDecimal(text.toString()));
+        }
+        if (i != length || digits + fractionDigits == 0) {
+            throw new NumberFormatException("Not an amount: " + text);
+        }
+        for (int f = Math.min(fractionDigits, SCALE); f < SCALE; f++) {
+            minor *= 10;
+        }
+        long total = Math.addExact(Math.multiplyExact(major, MINOR_PER_MAJOR), minor);
+        return ofMinor(negative ? -total : total);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits), currency);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money other)) {
+            return false;
+        }
+        return minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+    // "1234.50" - the plain amount, without currency, as used in messages and on the wire.
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(20)).toString();
+    }
+
+    public StringBuilder appendTo(StringBuilder sb) {
+        long abs = Math.abs(minorUnits);
+        if (minorUnits < 0) {
+            sb.append('-');
+        }
+        long fraction = abs % MINOR_PER_MAJOR;
+        sb.append(abs / MINOR_PER_MAJOR).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction);
+    }
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+}
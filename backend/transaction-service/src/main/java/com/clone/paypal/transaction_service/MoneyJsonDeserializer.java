@@ -0,0 +1,28 @@
+package com.clone.paypal.transaction_service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+
+// Reads a JSON number (or numeric string) straight from its text into minor units, without a BigDecimal.
+public class MoneyJsonDeserializer extends StdDeserializer<Money> {
+
+    public MoneyJsonDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_STRING) {
+            return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+        }
+        try {
+            return Money.parse(p.getText().trim());
+        } catch (ArithmeticException | NumberFormatException e) {
+            return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), e.getMessage());
+        }
+    }
+}
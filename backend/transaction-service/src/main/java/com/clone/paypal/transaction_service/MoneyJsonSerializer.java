@@ -0,0 +1,19 @@
+package com.clone.paypal.transaction_service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+// Writes Money as a bare JSON number (25.00), the same shape the BigDecimal fields had.
+public class MoneyJsonSerializer extends StdSerializer<Money> {
+
+    public MoneyJsonSerializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public void serialize(Money value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeNumber(value.toString());
+    }
+}
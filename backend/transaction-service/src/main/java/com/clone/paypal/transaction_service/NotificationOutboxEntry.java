@@ -0,0 +1,112 @@
+package com.clone.paypal.transaction_service;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A notification waiting to be relayed to notification_topic. Written in the same database transaction
+// as its Transaction row and deleted once Kafka has acknowledged it. claimedBy/claimedUntil mark it as
+// being sent by one relay.
+@Entity
+@Table(name = "notification_outbox")
+public class NotificationOutboxEntry {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY) private Long id;
+    private Long userId;
+    @Column(length = 1024)
+    private String message;
+    private LocalDateTime createdAt;
+    private String eventId;
+    private String type;
+    private Long amountMinorUnits;
+    private String claimedBy;
+    private LocalDateTime claimedUntil;
+
+    public NotificationOutboxEntry() {
+    }
+
+    public NotificationOutboxEntry(NotificationRequest notification, LocalDateTime createdAt) {
+        this.userId = notification.getUserId();
+        this.message = notification.getMessage();
+        this.createdAt = createdAt;
+        this.eventId = notification.getEventId();
+        this.type = notification.getType();
+        this.amountMinorUnits = notification.getAmountMinorUnits();
+    }
+
+    public NotificationRequest toNotificationRequest() {
+        NotificationRequest request = new NotificationRequest(userId, message, type, amountMinorUnits);
+        request.setEventId(eventId);
+        return request;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getAmountMinorUnits() {
+        return amountMinorUnits;
+    }
+
+    public void setAmountMinorUnits(Long amountMinorUnits) {
+        this.amountMinorUnits = amountMinorUnits;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public LocalDateTime getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(LocalDateTime claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+}
@@ -0,0 +1,98 @@
+package com.clone.paypal.transaction_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Drains notification_outbox to notification_topic in id order. A batch is sent in one go (the producer
+// groups the records per partition), and only deleted after every record in it has been acknowledged.
+// If anything fails nothing is deleted and the whole batch is sent again on the next run, so delivery is
+// at-least-once. Records are keyed by userId, which keeps each user's notifications in order.
+//
+// No row lock is held while waiting on Kafka: a batch is claimed in one short transaction, sent, then
+// deleted in another. A claim expires after claim-ttl-ms, so a relay that dies mid-send doesn't strand it.
+@Component
+public class NotificationOutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxRelay.class);
+
+    @Autowired private NotificationOutboxRepository notificationOutboxRepository;
+    @Autowired private KafkaProducerService kafkaProducerService;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private final String relayId = UUID.randomUUID().toString();
+
+    @Value("${transaction.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${transaction.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${transaction.outbox.claim-ttl-ms:30000}")
+    private long claimTtlMs;
+
+    @Scheduled(fixedDelayString = "${transaction.outbox.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            // Keep going while batches come back full, so a backlog drains without waiting for the next poll.
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Notification outbox relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    // Returns the number of entries sent and deleted.
+    int relayBatch() {
+        List<NotificationOutboxEntry> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = batch.stream().map(NotificationOutboxEntry::getId).toList();
+        CompletableFuture<?>[] sends = batch.stream()
+                .map(entry -> kafkaProducerService.sendNotificationEvent(entry.toNotificationRequest()))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            notificationOutboxRepository.release(ids, relayId);
+            throw new IllegalStateException("Interrupted while relaying notifications", e);
+        } catch (Exception e) {
+            notificationOutboxRepository.release(ids, relayId);
+            throw new IllegalStateException("Could not relay notifications", e);
+        }
+        notificationOutboxRepository.deleteAllByIdInBatch(ids);
+        return batch.size();
+    }
+
+    // Claims the oldest batch. Empty if the outbox is empty or its head is still claimed by another relay:
+    // sending the entries behind that claim now could deliver a user's notifications out of order.
+    private List<NotificationOutboxEntry> claimBatch() {
+        List<NotificationOutboxEntry> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<NotificationOutboxEntry> oldest = notificationOutboxRepository.findOldestForUpdate(PageRequest.of(0, batchSize));
+            if (oldest.stream().anyMatch(e -> e.getClaimedUntil() != null && e.getClaimedUntil().isAfter(now))) {
+                return List.of();
+            }
+            if (!oldest.isEmpty()) {
+                notificationOutboxRepository.claim(
+                        oldest.stream().map(NotificationOutboxEntry::getId).toList(), relayId, now.plus(Duration.ofMillis(claimTtlMs)));
+            }
+            return oldest;
+        });
+        return batch == null ? List.of() : batch;
+    }
+}
@@ -0,0 +1,31 @@
+package com.clone.paypal.transaction_service;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntry, Long> {
+
+    // Oldest first, locked, so two relays can't both claim the same batch. Only held while claiming.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from NotificationOutboxEntry e order by e.id")
+    List<NotificationOutboxEntry> findOldestForUpdate(Pageable pageable);
+
+    @Modifying
+    @Query("update NotificationOutboxEntry e set e.claimedBy = :relayId, e.claimedUntil = :claimedUntil where e.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("relayId") String relayId, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    // Gives entries back after a failed send, unless another relay has taken them over in the meantime.
+    @Transactional
+    @Modifying
+    @Query("update NotificationOutboxEntry e set e.claimedBy = null, e.claimedUntil = null where e.id in :ids and e.claimedBy = :relayId")
+    int release(@Param("ids") Collection<Long> ids, @Param("relayId") String relayId);
+}
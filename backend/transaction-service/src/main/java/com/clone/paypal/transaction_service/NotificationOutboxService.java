@@ -0,0 +1,31 @@
+package com.clone.paypal.transaction_service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class NotificationOutboxService {
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private NotificationOutboxRepository notificationOutboxRepository;
+    @Autowired private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    // The transaction, its notifications and, for a payment made under an Idempotency-Key, the key's transactionId
+    // commit or roll back together; NotificationOutboxRelay sends the notifications later. If the key already has a
+    // transaction (a retry took the claim over and finished first) this one is rolled back with
+    // IdempotencyConflictException, so a payment is never recorded twice.
+    @Transactional
+    public Transaction saveWithNotifications(Transaction transaction, List<NotificationRequest> notifications, String idempotencyKey) {
+        Transaction saved = transactionRepository.save(transaction);
+        if (idempotencyKey != null && idempotencyRecordRepository.assignTransaction(idempotencyKey, saved.getId()) == 0) {
+            throw new IdempotencyConflictException(idempotencyKey);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // One event per transaction and type, so a re-sent outbox entry carries the same id.
+        notifications.forEach(n -> n.setEventId(saved.getId() + ":" + n.getType()));
+        notificationOutboxRepository.saveAll(notifications.stream().map(n -> new NotificationOutboxEntry(n, now)).toList());
+        return saved;
+    }
+}
@@ -1,11 +1,22 @@
 package com.clone.paypal.transaction_service;
 
 public class NotificationRequest {
+    public static final String PAYMENT_SENT = "PAYMENT_SENT";
+    public static final String PAYMENT_RECEIVED = "PAYMENT_RECEIVED";
+
     private Long userId;
     private String message;
+    private String eventId; // Stable across re-sends, so the consumer can drop duplicates
+    private String type;
+    private Long amountMinorUnits;
     public NotificationRequest() {}
     public NotificationRequest(Long userId, String message) { this.userId = userId; this.message = message; }
 
+    public NotificationRequest(Long userId, String message, String type, Long amountMinorUnits) {
+        this(userId, message);
+        this.type = type;
+        this.amountMinorUnits = amountMinorUnits;
+    }
 
     public Long getUserId() {
         return userId;
@@ -22,4 +33,28 @@ public class NotificationRequest {
     public void setMessage(String message) {
         this.message = message;
     }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getAmountMinorUnits() {
+        return amountMinorUnits;
+    }
+
+    public void setAmountMinorUnits(Long amountMinorUnits) {
+        this.amountMinorUnits = amountMinorUnits;
+    }
 }
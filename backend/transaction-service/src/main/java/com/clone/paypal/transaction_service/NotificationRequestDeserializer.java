@@ -0,0 +1,28 @@
+package com.clone.paypal.transaction_service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import java.io.IOException;
+
+// Kafka value deserializer for notification_topic, see NotificationRequestCodec.
+public class NotificationRequestDeserializer implements Deserializer<NotificationRequest> {
+    private final ObjectMapper objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Override
+    public NotificationRequest deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            // Records from before the binary codec are JSON objects; keep reading them until they age out of the topic.
+            if (data.length > 0 && data[0] == '{') {
+                return objectMapper.readValue(data, NotificationRequest.class);
+            }
+            return NotificationRequestCodec.decode(data);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new SerializationException("Can't deserialize notification from " + topic, e);
+        }
+    }
+}
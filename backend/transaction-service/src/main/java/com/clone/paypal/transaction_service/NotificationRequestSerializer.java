@@ -0,0 +1,12 @@
+package com.clone.paypal.transaction_service;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+// Kafka value serializer for notification_topic, see NotificationRequestCodec.
+public class NotificationRequestSerializer implements Serializer<NotificationRequest> {
+
+    @Override
+    public byte[] serialize(String topic, NotificationRequest data) {
+        return data == null ? null : NotificationRequestCodec.encode(data);
+    }
+}
@@ -0,0 +1,87 @@
+package com.clone.paypal.transaction_service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Recipient email -> userId resolutions, including "no such user". Misses expire sooner than hits,
+// and both are dropped as soon as user-service reports a change for that email (see UserEventListener).
+// Emails are keyed trimmed and lowercased, the way user-service stores them, so every spelling of an
+// address shares one entry and one invalidation.
+@Component
+public class RecipientCache {
+
+    private final Cache<String, Resolution> cache;
+
+    public RecipientCache(@Value("${transaction.recipient-cache.max-size:100000}") long maxSize,
+                          @Value("${transaction.recipient-cache.ttl-seconds:600}") long ttlSeconds,
+                          @Value("${transaction.recipient-cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        long negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Resolution>() {
+                    @Override
+                    public long expireAfterCreate(String email, Resolution resolution, long currentTime) {
+                        return resolution.isFound() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String email, Resolution resolution, long currentTime, long currentDuration) {
+                        return expireAfterCreate(email, resolution, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String email, Resolution resolution, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    // Null if the email hasn't been resolved recently.
+    public Resolution get(String email) {
+        return cache.getIfPresent(key(email));
+    }
+
+    public void putFound(String email, Long userId) {
+        cache.put(key(email), new Resolution(userId));
+    }
+
+    public void putNotFound(String email) {
+        cache.put(key(email), Resolution.NOT_FOUND);
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(key(email));
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        return Map.of(
+                "size", cache.estimatedSize(),
+                "hits", stats.hitCount(),
+                "misses", stats.missCount(),
+                "hitRate", stats.hitRate(),
+                "evictions", stats.evictionCount());
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public record Resolution(Long userId) {
+        static final Resolution NOT_FOUND = new Resolution(null);
+
+        public boolean isFound() {
+            return userId != null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.clone.paypal.transaction_service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import java.util.Optional;
+
+// Turns a recipient email into a userId through USER-SERVICE, consulting RecipientCache first.
+// Lookup errors other than 404 are not cached and are passed on to the caller.
+@Service
+public class RecipientResolver {
+    @Autowired private RestTemplate restTemplate;
+    @Autowired private WebClient webClient;
+    @Autowired private RecipientCache recipientCache;
+
+    private final String userServiceUrl = "http://USER-SERVICE/api/users";
+
+    public Optional<Long> resolve(String email) {
+        RecipientCache.Resolution cached = recipientCache.get(email);
+        if (cached != null) {
+            return Optional.ofNullable(cached.userId());
+        }
+        User user;
+        try {
+            user = restTemplate.getForObject(userServiceUrl + "/email/" + email, User.class);
+        } catch (HttpClientErrorException.NotFound e) {
+            user = null;
+        }
+        return remember(email, user);
+    }
+
+    // Empty if there is no such user.
+    public Mono<Long> resolveReactive(String email) {
+        RecipientCache.Resolution cached = recipientCache.get(email);
+        if (cached != null) {
+            return Mono.justOrEmpty(cached.userId());
+        }
+        return webClient.get()
+                .uri(userServiceUrl + "/email/{email}", email)
+                .retrieve()
+                .bodyToMono(User.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(user -> Mono.justOrEmpty(remember(email, user.orElse(null))));
+    }
+
+    private Optional<Long> remember(String email, User user) {
+        if (user == null || user.getId() == null) {
+            recipientCache.putNotFound(email);
+            return Optional.empty();
+        }
+        recipientCache.putFound(email, user.getId());
+        return Optional.of(user.getId());
+    }
+}
@@ -1,15 +1,38 @@
 package com.clone.paypal.transaction_service;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import java.time.Duration;
 
 @Configuration
 public class RestTemplateConfig {
+    // Timeouts keep a blocking payment well inside its idempotency lease (transaction.idempotency.lease-seconds),
+    // so a hung call can't outlive the claim.
     @Bean
     @LoadBalanced
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     @Value("${transaction.pipeline.connect-timeout-ms:2000}") long connectTimeoutMs,
+                                     @Value("${transaction.pipeline.call-timeout-ms:5000}") long callTimeoutMs) {
+        return builder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(callTimeoutMs))
+                .build();
+    }
+
+    // Used by the reactive transaction pipeline (transaction.pipeline.mode=reactive).
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder();
+    }
+
+    @Bean
+    public WebClient webClient(WebClient.Builder loadBalancedWebClientBuilder) {
+        return loadBalancedWebClientBuilder.build();
     }
 }
@@ -1,17 +1,29 @@
 package com.clone.paypal.transaction_service;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Back the keyset-paginated history: each side of a user's history is one index range scan.
+        @Index(name = "idx_transactions_sender_ts", columnList = "senderId, timestamp, id"),
+        @Index(name = "idx_transactions_recipient_ts", columnList = "recipientId, timestamp, id"),
+        // Same, for pages filtered by outcome: the equality on outcome keeps it a single range scan.
+        @Index(name = "idx_transactions_sender_outcome_ts", columnList = "senderId, outcome, timestamp, id"),
+        @Index(name = "idx_transactions_recipient_outcome_ts", columnList = "recipientId, outcome, timestamp, id")
+})
 public class Transaction {
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY) private Long id;
     private Long senderId;
     private Long recipientId;
-    private BigDecimal amount;
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
     private String status;
+    @Column(length = 16)
+    private String outcome; // COMPLETED or FAILED, derived from status so history can filter on it by equality
 
     public Long getId() {
         return id;
@@ -35,13 +47,31 @@ public class Transaction {
 
     public void setStatus(String status) {
         this.status = status;
+        this.outcome = outcomeOf(status);
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    // "FAILED: Recipient user not found" -> "FAILED"
+    public static String outcomeOf(String status) {
+        if (status == null) {
+            return null;
+        }
+        int colon = status.indexOf(':');
+        return (colon < 0 ? status : status.substring(0, colon)).trim();
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -1,21 +1,61 @@
 package com.clone.paypal.transaction_service;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
     @Autowired private TransactionService transactionService;
     @Autowired private TransactionRepository transactionRepository;
+    @Autowired private RecipientCache recipientCache;
+    @Autowired private IdempotencyService idempotencyService;
+    @Autowired private TransactionHistoryService transactionHistoryService;
+    @Autowired private TransactionExportService transactionExportService;
+    @Autowired private UserDirectoryClient userDirectoryClient;
 
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 200; // Leaves room for the sender prefix in the key column
+
+    // In reactive pipeline mode the request thread is released while the payment is in flight.
+    // Requests that repeat an Idempotency-Key get the first request's transaction back instead of paying twice;
+    // reusing a key for a different payment is a 422.
     @PostMapping
-    public ResponseEntity<Transaction> createTransaction(@RequestBody TransactionRequest request) {
-        Transaction newTransaction = transactionService.performTransaction(
-                request.getSenderId(), request.getRecipientEmail(), request.getAmount()
-        );
-        return ResponseEntity.ok(newTransaction);
+    public CompletableFuture<ResponseEntity<Transaction>> createTransaction(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody TransactionRequest request) {
+        Function<String, CompletableFuture<Transaction>> payment = claimedKey -> transactionService.submitTransaction(
+                request.getSenderId(), request.getRecipientEmail(), request.getAmount(), claimedKey);
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return payment.apply(null).thenApply(ResponseEntity::ok);
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        try {
+            return idempotencyService.execute(request.getSenderId(), idempotencyKey, IdempotencyService.fingerprint(request), payment)
+                    .thenApply(ResponseEntity::ok);
+        } catch (IdempotencyConflictException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT).build());
+        } catch (IdempotencyKeyReuseException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build());
+        }
+    }
+
+    // The same conflict, raised after the payment started (its claim was taken over and the Transaction recorded
+    // by another request whose result couldn't be loaded).
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<Void> idempotencyConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
     }
 
     @GetMapping("/user/{userId}")
@@ -23,4 +63,61 @@ public class TransactionController {
         List<Transaction> transactions = transactionRepository.findBySenderIdOrRecipientId(userId, userId);
         return ResponseEntity.ok(transactions);
     }
-}
\ No newline at end of file
+
+    // Paginated history, newest first. Pass the returned nextCursor to fetch the following page.
+    // With users=true (the default) the page also maps every sender and recipient id to their name and email,
+    // resolved with a single call to user-service made with the caller's token.
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<TransactionPage> getTransactionHistory(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "all") String direction,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TransactionHistoryService.DEFAULT_LIMIT) int limit,
+            @RequestParam(defaultValue = "true") boolean users) {
+        try {
+            TransactionHistoryService.Direction parsedDirection = TransactionHistoryService.Direction.valueOf(direction.toUpperCase());
+            TransactionPage page = transactionHistoryService.page(userId, parsedDirection, status, from, to, cursor, limit);
+            if (users) {
+                page.setUsers(userDirectoryClient.findUsers(page.counterpartyIds(), authorization));
+            }
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            // Unknown direction or status, or a cursor we didn't issue
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Full statement, oldest first, streamed as it is read. Written on the request thread rather than as a
+    // StreamingResponseBody so that large exports aren't cut off by spring.mvc.async.request-timeout.
+    @GetMapping("/user/{userId}/export")
+    public void exportStatement(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) throws IOException {
+        TransactionExportService.Format parsedFormat;
+        try {
+            parsedFormat = TransactionExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown format " + format);
+            return;
+        }
+        String extension = parsedFormat == TransactionExportService.Format.CSV ? "csv" : "ndjson";
+        String fileName = "statement-" + userId + "." + extension + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip"
+                : parsedFormat == TransactionExportService.Format.CSV ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        transactionExportService.export(userId, from, to, parsedFormat, gzip, response.getOutputStream());
+    }
+
+    @GetMapping("/recipient-cache/stats")
+    public ResponseEntity<Map<String, Object>> getRecipientCacheStats() {
+        return ResponseEntity.ok(recipientCache.stats());
+    }
+}
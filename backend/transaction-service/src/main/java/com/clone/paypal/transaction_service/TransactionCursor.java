@@ -0,0 +1,29 @@
+package com.clone.paypal.transaction_service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Opaque history cursor: the (timestamp, id) of the last transaction on a page, base64url-encoded.
+public record TransactionCursor(LocalDateTime timestamp, Long id) {
+
+    public static TransactionCursor of(Transaction transaction) {
+        return new TransactionCursor(transaction.getTimestamp(), transaction.getId());
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Throws IllegalArgumentException for anything encode() couldn't have produced.
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.clone.paypal.transaction_service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Writes a user's statement row by row straight from a streaming result set, detaching each
+// Transaction once written, so memory use doesn't depend on the number of rows.
+@Service
+public class TransactionExportService {
+    public enum Format { CSV, NDJSON }
+
+    static final String CSV_HEADER = "id,timestamp,senderId,recipientId,amount,status";
+
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void export(Long userId, LocalDateTime from, LocalDateTime to, Format format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<Transaction> rows = transactionRepository.streamStatement(userId, from, to)) {
+            Iterator<Transaction> iterator = rows.iterator();
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                while (iterator.hasNext()) {
+                    Transaction transaction = iterator.next();
+                    writeCsvRow(writer, transaction);
+                    entityManager.detach(transaction);
+                }
+            } else {
+                SequenceWriter json = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+                boolean empty = true;
+                while (iterator.hasNext()) {
+                    Transaction transaction = iterator.next();
+                    json.write(transaction);
+                    entityManager.detach(transaction);
+                    empty = false;
+                }
+                json.flush();
+                if (!empty) {
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+        if (target instanceof GZIPOutputStream gzipOut) {
+            gzipOut.finish();
+        }
+    }
+
+    static void writeCsvRow(Writer writer, Transaction transaction) throws IOException {
+        writer.write(String.valueOf(transaction.getId()));
+        writer.write(',');
+        writer.write(transaction.getTimestamp() == null ? "" : transaction.getTimestamp().toString());
+        writer.write(',');
+        writer.write(transaction.getSenderId() == null ? "" : transaction.getSenderId().toString());
+        writer.write(',');
+        writer.write(transaction.getRecipientId() == null ? "" : transaction.getRecipientId().toString());
+        writer.write(',');
+        writer.write(transaction.getAmount() == null ? "" : transaction.getAmount().toString());
+        writer.write(',');
+        writer.write(csvField(transaction.getStatus()));
+        writer.write('\n');
+    }
+
+    // Failure statuses carry free-form error messages, so they may need quoting.
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
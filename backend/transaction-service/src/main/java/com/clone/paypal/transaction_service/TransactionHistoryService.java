@@ -0,0 +1,82 @@
+package com.clone.paypal.transaction_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Keyset pagination over a user's history, newest first. Every page is one bounded index range scan per
+// side (sent / received), so the cost of a page doesn't grow with the size of the history.
+@Service
+public class TransactionHistoryService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionHistoryService.class);
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    public static final Set<String> OUTCOMES = Set.of(Transaction.COMPLETED, Transaction.FAILED);
+
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparing(Transaction::getTimestamp, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Transaction::getId, Comparator.reverseOrder());
+
+    @Autowired private TransactionRepository transactionRepository;
+
+    public enum Direction { ALL, SENT, RECEIVED }
+
+    // status is an outcome (COMPLETED or FAILED, any case), so "failed" also finds "FAILED: Insufficient funds";
+    // anything else is an IllegalArgumentException. from is inclusive, to exclusive.
+    public TransactionPage page(Long userId, Direction direction, String status,
+                                LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        String outcome = status == null || status.isBlank() ? null : status.trim().toUpperCase(Locale.ROOT);
+        if (outcome != null && !OUTCOMES.contains(outcome)) {
+            throw new IllegalArgumentException("Unknown status " + status);
+        }
+        TransactionCursor after = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+        LocalDateTime afterTimestamp = after == null ? null : after.timestamp();
+        Long afterId = after == null ? null : after.id();
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        // One extra row tells us whether there is a next page.
+        Pageable pageable = PageRequest.of(0, size + 1);
+
+        List<Transaction> rows = new ArrayList<>();
+        if (direction != Direction.RECEIVED) {
+            rows.addAll(transactionRepository.findSentPage(userId, outcome, from, to, afterTimestamp, afterId, pageable));
+        }
+        if (direction != Direction.SENT) {
+            rows.addAll(transactionRepository.findReceivedPage(userId, outcome, from, to, afterTimestamp, afterId, pageable));
+        }
+        if (direction == Direction.ALL) {
+            // Merge both sides; a payment to oneself shows up on both.
+            Map<Long, Transaction> byId = new LinkedHashMap<>();
+            rows.forEach(t -> byId.putIfAbsent(t.getId(), t));
+            rows = new ArrayList<>(byId.values());
+            rows.sort(NEWEST_FIRST);
+        }
+
+        if (rows.size() <= size) {
+            return new TransactionPage(rows, null);
+        }
+        List<Transaction> items = new ArrayList<>(rows.subList(0, size));
+        return new TransactionPage(items, TransactionCursor.of(items.get(size - 1)).encode());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOutcomes() {
+        int updated = transactionRepository.backfillOutcomes();
+        if (updated > 0) {
+            logger.info("Backfilled the outcome of {} transactions", updated);
+        }
+    }
+}
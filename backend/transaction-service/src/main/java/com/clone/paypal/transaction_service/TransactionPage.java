@@ -0,0 +1,45 @@
+package com.clone.paypal.transaction_service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public class TransactionPage {
+    private List<Transaction> items;
+    private String nextCursor; // Null on the last page
+    private Map<Long, User> users; // Senders and recipients on this page by id; null if not requested or unavailable
+
+    public TransactionPage(List<Transaction> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Transaction> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public Map<Long, User> getUsers() {
+        return users;
+    }
+
+    public void setUsers(Map<Long, User> users) {
+        this.users = users;
+    }
+
+    // Every sender and recipient on the page, once each.
+    public Set<Long> counterpartyIds() {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Transaction transaction : items) {
+            ids.add(transaction.getSenderId());
+            ids.add(transaction.getRecipientId());
+        }
+        ids.removeIf(Objects::isNull);
+        return ids;
+    }
+}
@@ -1,8 +1,62 @@
 package com.clone.paypal.transaction_service;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findBySenderIdOrRecipientId(Long senderId, Long recipientId);
-}
\ No newline at end of file
+
+    // Keyset pages, newest first. Null filters and a null cursor are ignored; the cursor is the
+    // (timestamp, id) of the last row of the previous page. Served by the (user, [outcome,] timestamp, id) indexes.
+    @Query("select t from Transaction t where t.senderId = :userId"
+            + " and (:outcome is null or t.outcome = :outcome)"
+            + " and (:from is null or t.timestamp >= :from) and (:to is null or t.timestamp < :to)"
+            + " and (:afterTimestamp is null or t.timestamp < :afterTimestamp"
+            + " or (t.timestamp = :afterTimestamp and t.id < :afterId))"
+            + " order by t.timestamp desc, t.id desc")
+    List<Transaction> findSentPage(@Param("userId") Long userId, @Param("outcome") String outcome,
+                                   @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                   @Param("afterTimestamp") LocalDateTime afterTimestamp, @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    @Query("select t from Transaction t where t.recipientId = :userId"
+            + " and (:outcome is null or t.outcome = :outcome)"
+            + " and (:from is null or t.timestamp >= :from) and (:to is null or t.timestamp < :to)"
+            + " and (:afterTimestamp is null or t.timestamp < :afterTimestamp"
+            + " or (t.timestamp = :afterTimestamp and t.id < :afterId))"
+            + " order by t.timestamp desc, t.id desc")
+    List<Transaction> findReceivedPage(@Param("userId") Long userId, @Param("outcome") String outcome,
+                                       @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                       @Param("afterTimestamp") LocalDateTime afterTimestamp, @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    // Fills in outcome for rows written before the column existed. A no-op once they have all been updated.
+    @Transactional
+    @Modifying
+    @Query("update Transaction t set t.outcome = case when t.status like 'FAILED%' then 'FAILED' else t.status end"
+            + " where t.outcome is null and t.status is not null")
+    int backfillOutcomes();
+
+    // Statement export, oldest first. A fetch size of Integer.MIN_VALUE makes MySQL Connector/J stream
+    // rows one at a time instead of buffering the whole result set; read-only skips dirty-checking snapshots.
+    // Must be consumed inside a transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Transaction t where (t.senderId = :userId or t.recipientId = :userId)"
+            + " and (:from is null or t.timestamp >= :from) and (:to is null or t.timestamp < :to)"
+            + " order by t.timestamp, t.id")
+    Stream<Transaction> streamStatement(@Param("userId") Long userId,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
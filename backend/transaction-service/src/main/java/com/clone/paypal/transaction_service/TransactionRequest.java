@@ -1,11 +1,9 @@
 package com.clone.paypal.transaction_service;
 
-import java.math.BigDecimal;
-
 public class TransactionRequest {
     private Long senderId;
     private String recipientEmail;
-    private BigDecimal amount;
+    private Money amount;
 
     public Long getSenderId() {
         return senderId;
@@ -23,11 +21,11 @@ public class TransactionRequest {
         this.recipientEmail = recipientEmail;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 }
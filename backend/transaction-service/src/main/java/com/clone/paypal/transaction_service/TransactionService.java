@@ -1,60 +1,148 @@
 package com.clone.paypal.transaction_service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.HttpClientErrorException;
-import java.math.BigDecimal;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class TransactionService {
-    @Autowired private TransactionRepository transactionRepository;
     @Autowired private RestTemplate restTemplate;
-    @Autowired private KafkaProducerService kafkaProducerService;
+    @Autowired private WebClient webClient;
+    @Autowired private NotificationOutboxService notificationOutboxService;
+    @Autowired private RecipientResolver recipientResolver;
 
     private final String walletServiceUrl = "http://WALLET-SERVICE/api/wallets";
-    private final String userServiceUrl = "http://USER-SERVICE/api/users";
 
-    public Transaction performTransaction(Long senderId, String recipientEmail, BigDecimal amount) {
-        Transaction transaction = new Transaction();
-        transaction.setSenderId(senderId);
-        transaction.setRecipientId(null); // Will be set if recipient is found
-        transaction.setAmount(amount);
-        transaction.setTimestamp(LocalDateTime.now());
+    // "blocking" runs the whole flow on the request thread; "reactive" frees it while waiting on other services.
+    @Value("${transaction.pipeline.mode:blocking}")
+    private String pipelineMode;
+
+    // Bounds each WebClient call in reactive mode; the RestTemplate's read timeout in blocking mode (see RestTemplateConfig).
+    @Value("${transaction.pipeline.call-timeout-ms:5000}")
+    private long callTimeoutMs;
+
+    // idempotencyKey is the claimed key when the payment runs under one (see IdempotencyService), otherwise null.
+    // It goes to wallet-service as the transfer id and is recorded with the Transaction.
+    public CompletableFuture<Transaction> submitTransaction(Long senderId, String recipientEmail, Money amount, String idempotencyKey) {
+        if ("reactive".equalsIgnoreCase(pipelineMode)) {
+            return performTransactionReactive(senderId, recipientEmail, amount, idempotencyKey).toFuture();
+        }
+        return CompletableFuture.completedFuture(performTransaction(senderId, recipientEmail, amount, idempotencyKey));
+    }
 
-        User recipientUser = null;
+    public Transaction performTransaction(Long senderId, String recipientEmail, Money amount, String idempotencyKey) {
+        Transaction transaction = newTransaction(senderId, amount);
+
+        Long recipientId;
         try {
-            recipientUser = restTemplate.getForObject(userServiceUrl + "/email/" + recipientEmail, User.class);
-        } catch (HttpClientErrorException.NotFound e) {
-            transaction.setStatus("FAILED: Recipient user not found");
-            return transactionRepository.save(transaction);
+            Optional<Long> recipient = recipientResolver.resolve(recipientEmail);
+            if (recipient.isEmpty()) {
+                transaction.setStatus("FAILED: Recipient user not found");
+                return record(transaction, List.of(), idempotencyKey);
+            }
+            recipientId = recipient.get();
         } catch (Exception e) {
             transaction.setStatus("FAILED: Error fetching recipient user: " + e.getMessage());
-            return transactionRepository.save(transaction);
+            return record(transaction, List.of(), idempotencyKey);
         }
+        transaction.setRecipientId(recipientId);
 
-        if (recipientUser == null || recipientUser.getId() == null) {
-            transaction.setStatus("FAILED: Recipient user not found or invalid");
-            return transactionRepository.save(transaction);
+        List<NotificationRequest> notifications = List.of();
+        try {
+            // Debit and credit happen in one wallet-service transaction, so money is never debited without being credited.
+            restTemplate.postForObject(walletServiceUrl + "/transfer", new WalletTransferRequest(senderId, recipientId, amount, idempotencyKey), Void.class);
+            transaction.setStatus("COMPLETED");
+            notifications = completedNotifications(senderId, recipientId, recipientEmail, amount);
+        } catch (Exception e) {
+            transaction.setStatus("FAILED: " + e.getMessage());
         }
+        return record(transaction, notifications, idempotencyKey);
+    }
 
-        Long recipientId = recipientUser.getId();
-        transaction.setRecipientId(recipientId);
+    // Same flow and statuses as performTransaction, but the user lookup and the transfer are non-blocking
+    // WebClient calls, so no thread is held while they are in flight. Only the final JPA save borrows a
+    // boundedElastic thread.
+    public Mono<Transaction> performTransactionReactive(Long senderId, String recipientEmail, Money amount, String idempotencyKey) {
+        Transaction transaction = newTransaction(senderId, amount);
 
+        Duration callTimeout = Duration.ofMillis(callTimeoutMs);
+        Mono<String> status = recipientResolver.resolveReactive(recipientEmail)
+                .timeout(callTimeout, Mono.error(() -> new TimeoutException("Timed out waiting for user-service")))
+                .onErrorMap(e -> new RecipientLookupException(e))
+                .flatMap(recipientId -> {
+                    transaction.setRecipientId(recipientId);
+                    return webClient.post()
+                            .uri(walletServiceUrl + "/transfer")
+                            .bodyValue(new WalletTransferRequest(senderId, recipientId, amount, idempotencyKey))
+                            .retrieve()
+                            .toBodilessEntity()
+                            // A timed-out transfer is cancelled here but may still have been applied by wallet-service,
+                            // same as a read timeout in blocking mode.
+                            .timeout(callTimeout, Mono.error(() -> new TimeoutException("Timed out waiting for wallet-service")))
+                            .thenReturn("COMPLETED")
+                            .onErrorResume(e -> Mono.just("FAILED: " + e.getMessage()));
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> "FAILED: Recipient user not found"))
+                .onErrorResume(RecipientLookupException.class,
+                        e -> Mono.just("FAILED: Error fetching recipient user: " + e.getCause().getMessage()));
+
+        return status.flatMap(s -> {
+            transaction.setStatus(s);
+            List<NotificationRequest> notifications = "COMPLETED".equals(s)
+                    ? completedNotifications(senderId, transaction.getRecipientId(), recipientEmail, amount)
+                    : List.of();
+            return Mono.fromCallable(() -> record(transaction, notifications, idempotencyKey))
+                    .subscribeOn(Schedulers.boundedElastic());
+        });
+    }
+
+    // A save that fails after a completed transfer is reported as UnrecordedTransferException, so callers
+    // know the money moved even though there is no Transaction. IdempotencyConflictException passes through:
+    // the payment was recorded, just by the request that took over the key.
+    private Transaction record(Transaction transaction, List<NotificationRequest> notifications, String idempotencyKey) {
         try {
-            restTemplate.postForObject(walletServiceUrl + "/debit", new WalletTransactionRequest(senderId, amount), Void.class);
-            restTemplate.postForObject(walletServiceUrl + "/credit", new WalletTransactionRequest(recipientId, amount), Void.class);
-            transaction.setStatus("COMPLETED");
+            return notificationOutboxService.saveWithNotifications(transaction, notifications, idempotencyKey);
+        } catch (IdempotencyConflictException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if ("COMPLETED".equals(transaction.getStatus())) {
+                throw new UnrecordedTransferException(e);
+            }
+            throw e;
+        }
+    }
+
+    private Transaction newTransaction(Long senderId, Money amount) {
+        Transaction transaction = new Transaction();
+        transaction.setSenderId(senderId);
+        transaction.setRecipientId(null); // Will be set if recipient is found
+        transaction.setAmount(amount);
+        transaction.setTimestamp(LocalDateTime.now());
+        return transaction;
+    }
 
-            String sentMsg = String.format("You sent %.2f to user %s.", amount.doubleValue(), recipientEmail);
-            kafkaProducerService.sendNotificationEvent(new NotificationRequest(senderId, sentMsg));
+    private List<NotificationRequest> completedNotifications(Long senderId, Long recipientId, String recipientEmail, Money amount) {
+        String sentMsg = "You sent " + amount + " to user " + recipientEmail + ".";
+        String receivedMsg = "You received " + amount + " from user " + senderId + ".";
+        return List.of(
+                new NotificationRequest(senderId, sentMsg, NotificationRequest.PAYMENT_SENT, amount.getMinorUnits()),
+                new NotificationRequest(recipientId, receivedMsg, NotificationRequest.PAYMENT_RECEIVED, amount.getMinorUnits()));
+    }
 
-            String receivedMsg = String.format("You received %.2f from user %d.", amount.doubleValue(), senderId);
-            kafkaProducerService.sendNotificationEvent(new NotificationRequest(recipientId, receivedMsg));
-        } catch (Exception e) {
-            transaction.setStatus("FAILED: " + e.getMessage());
+    // Marks failures of the recipient lookup, so they aren't confused with failures of the transfer.
+    private static class RecipientLookupException extends RuntimeException {
+        RecipientLookupException(Throwable cause) {
+            super(cause);
         }
-        return transactionRepository.save(transaction);
     }
-}
\ No newline at end of file
+}
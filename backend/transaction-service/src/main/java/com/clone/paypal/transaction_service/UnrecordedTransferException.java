@@ -0,0 +1,8 @@
+package com.clone.paypal.transaction_service;
+
+// wallet-service applied the transfer, but saving the Transaction failed afterwards. Retrying would pay twice.
+public class UnrecordedTransferException extends RuntimeException {
+    public UnrecordedTransferException(Throwable cause) {
+        super("Transfer completed but could not be recorded", cause);
+    }
+}
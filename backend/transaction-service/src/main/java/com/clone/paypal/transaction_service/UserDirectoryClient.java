@@ -0,0 +1,49 @@
+package com.clone.paypal.transaction_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Names and emails for a set of user ids, fetched from USER-SERVICE in one call. Used to show counterparties
+// on a history page; if user-service can't answer, the page is returned without them rather than failing.
+// /batch requires a token, so the caller's Authorization header is passed along.
+@Service
+public class UserDirectoryClient {
+    private static final Logger log = LoggerFactory.getLogger(UserDirectoryClient.class);
+
+    public static final int MAX_BATCH_SIZE = 500; // Same cap as user-service's /batch
+
+    @Autowired private RestTemplate restTemplate;
+
+    private final String userServiceUrl = "http://USER-SERVICE/api/users";
+
+    // Unknown ids are left out. Without an authorization header user-service answers 401, and the result is empty.
+    public Map<Long, User> findUsers(Collection<Long> ids, String authorization) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            return Map.of();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        if (authorization != null) {
+            headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        try {
+            Map<Long, User> users = restTemplate.exchange(userServiceUrl + "/batch", HttpMethod.POST,
+                    new HttpEntity<>(Map.of("ids", List.copyOf(ids)), headers),
+                    new ParameterizedTypeReference<Map<Long, User>>() {}).getBody();
+            return users == null ? Map.of() : users;
+        } catch (RestClientException e) {
+            log.warn("Could not resolve {} users: {}", ids.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+}
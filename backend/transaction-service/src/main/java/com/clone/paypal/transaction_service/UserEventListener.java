@@ -0,0 +1,28 @@
+package com.clone.paypal.transaction_service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+// user-service publishes to user_events whenever a user is created or changed (key = email).
+@Component
+@ConditionalOnProperty(name = "transaction.recipient-cache.invalidation.enabled", havingValue = "true")
+public class UserEventListener {
+
+    @Autowired
+    private RecipientCache recipientCache;
+
+    // A random group id per instance, so every instance drops its own cached resolution.
+    @KafkaListener(topics = "user_events", groupId = "transaction-recipient-cache-#{T(java.util.UUID).randomUUID().toString()}",
+            properties = {
+                    "key.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                    "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer"
+            })
+    public void onUserEvent(ConsumerRecord<String, String> record) {
+        if (record.key() != null) {
+            recipientCache.invalidate(record.key());
+        }
+    }
+}
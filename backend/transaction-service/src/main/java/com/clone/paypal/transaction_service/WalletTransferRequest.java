@@ -0,0 +1,47 @@
+package com.clone.paypal.transaction_service;
+
+public class WalletTransferRequest {
+    private Long fromUserId;
+    private Long toUserId;
+    private Money amount;
+    private String transferId; // The claimed idempotency key, so wallet-service applies a retried transfer once
+
+    public WalletTransferRequest(Long fromUserId, Long toUserId, Money amount, String transferId) {
+        this.fromUserId = fromUserId;
+        this.toUserId = toUserId;
+        this.amount = amount;
+        this.transferId = transferId;
+    }
+
+    public Long getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(Long fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public Long getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(Long toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+
+    public String getTransferId() {
+        return transferId;
+    }
+
+    public void setTransferId(String transferId) {
+        this.transferId = transferId;
+    }
+}
@@ -0,0 +1,172 @@
+package com.clone.paypal.transaction_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTests {
+
+	private static final String HASH = "request-hash";
+
+	private IdempotencyService idempotencyService;
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@BeforeEach
+	void setUp() {
+		idempotencyService = new IdempotencyService(24, 60, 1000, 10);
+		idempotencyRecordRepository = mock(IdempotencyRecordRepository.class);
+		when(idempotencyRecordRepository.findById(any())).thenReturn(Optional.empty());
+		ReflectionTestUtils.setField(idempotencyService, "idempotencyRecordRepository", idempotencyRecordRepository);
+		ReflectionTestUtils.setField(idempotencyService, "transactionRepository", mock(TransactionRepository.class));
+	}
+
+	@Test
+	void concurrentRetriesShareTheInFlightPayment() {
+		AtomicInteger payments = new AtomicInteger();
+		CompletableFuture<Transaction> pending = new CompletableFuture<>();
+
+		CompletableFuture<Transaction> first = idempotencyService.execute(1L, "key-1", HASH, key -> {
+			payments.incrementAndGet();
+			return pending;
+		});
+		CompletableFuture<Transaction> retry = idempotencyService.execute(1L, "key-1", HASH, key -> {
+			payments.incrementAndGet();
+			return CompletableFuture.completedFuture(transaction(99L));
+		});
+
+		assertThat(retry).isSameAs(first).isNotDone();
+		pending.complete(transaction(42L));
+
+		assertThat(first.join().getId()).isEqualTo(42L);
+		assertThat(payments).hasValue(1);
+	}
+
+	@Test
+	void finishedKeysAreAnsweredFromTheHotStore() {
+		idempotencyService.execute(1L, "key-2", HASH, key -> CompletableFuture.completedFuture(transaction(7L))).join();
+
+		Transaction replay = idempotencyService.execute(1L, "key-2", HASH, key -> {
+			throw new AssertionError("payment ran twice");
+		}).join();
+
+		assertThat(replay.getId()).isEqualTo(7L);
+	}
+
+	@Test
+	void keysAreScopedToTheSender() {
+		idempotencyService.execute(1L, "key-3", HASH, key -> CompletableFuture.completedFuture(transaction(1L))).join();
+
+		Transaction other = idempotencyService.execute(2L, "key-3", HASH, key -> CompletableFuture.completedFuture(transaction(2L))).join();
+
+		assertThat(other.getId()).isEqualTo(2L);
+	}
+
+	@Test
+	void failedPaymentsReleaseTheKey() {
+		CompletableFuture<Transaction> failed = idempotencyService.execute(1L, "key-4", HASH,
+				key -> CompletableFuture.failedFuture(new IllegalStateException("boom")));
+		assertThat(failed).isCompletedExceptionally();
+
+		Transaction retried = idempotencyService.execute(1L, "key-4", HASH, key -> CompletableFuture.completedFuture(transaction(5L))).join();
+
+		assertThat(retried.getId()).isEqualTo(5L);
+		verify(idempotencyRecordRepository).deleteById("1:key-4");
+	}
+
+	@Test
+	void aKeyCannotBeReusedForADifferentPayment() {
+		CompletableFuture<Transaction> pending = new CompletableFuture<>();
+		idempotencyService.execute(1L, "key-5", HASH, key -> pending);
+
+		assertThatThrownBy(() -> idempotencyService.execute(1L, "key-5", "other-hash", key -> pending))
+				.isInstanceOf(IdempotencyKeyReuseException.class);
+		pending.complete(transaction(8L));
+		assertThatThrownBy(() -> idempotencyService.execute(1L, "key-5", "other-hash", key -> pending))
+				.isInstanceOf(IdempotencyKeyReuseException.class);
+
+		// Also when the claim was made by another instance.
+		when(idempotencyRecordRepository.findById("1:key-6")).thenReturn(Optional.of(inFlightRecord("1:key-6", LocalDateTime.now().minusMinutes(5))));
+		assertThatThrownBy(() -> idempotencyService.execute(1L, "key-6", "other-hash", key -> pending))
+				.isInstanceOf(IdempotencyKeyReuseException.class);
+		verify(idempotencyRecordRepository, never()).takeOver(any(), any(), any());
+	}
+
+	@Test
+	void anAbandonedClaimIsTakenOverOnceItsLeaseRunsOut() {
+		when(idempotencyRecordRepository.findById("1:key-7")).thenReturn(Optional.of(inFlightRecord("1:key-7", LocalDateTime.now().minusSeconds(1))));
+		when(idempotencyRecordRepository.takeOver(eq("1:key-7"), any(), any())).thenReturn(1);
+
+		Transaction retried = idempotencyService.execute(1L, "key-7", HASH, key -> CompletableFuture.completedFuture(transaction(9L))).join();
+
+		assertThat(retried.getId()).isEqualTo(9L);
+	}
+
+	@Test
+	void aLiveClaimOnAnotherInstanceIsAConflict() {
+		when(idempotencyRecordRepository.findById("1:key-8")).thenReturn(Optional.of(inFlightRecord("1:key-8", LocalDateTime.now().plusSeconds(30))));
+		when(idempotencyRecordRepository.takeOver(eq("1:key-8"), any(), any())).thenReturn(0);
+
+		assertThatThrownBy(() -> idempotencyService.execute(1L, "key-8", HASH, key -> {
+			throw new AssertionError("payment ran twice");
+		})).isInstanceOf(IdempotencyConflictException.class);
+	}
+
+	@Test
+	void anUnrecordedTransferKeepsTheClaim() {
+		IdempotencyRecord claim = inFlightRecord("1:key-9", LocalDateTime.now().plusSeconds(60));
+		when(idempotencyRecordRepository.findById("1:key-9")).thenReturn(Optional.empty(), Optional.of(claim));
+
+		CompletableFuture<Transaction> failed = idempotencyService.execute(1L, "key-9", HASH,
+				key -> CompletableFuture.failedFuture(new UnrecordedTransferException(new IllegalStateException("database down"))));
+
+		assertThat(failed).isCompletedExceptionally();
+		verify(idempotencyRecordRepository, never()).deleteById(any());
+		// Pinned until the key expires, so no retry can take it over and pay again.
+		assertThat(claim.getLeaseExpiresAt()).isEqualTo(claim.getExpiresAt());
+		verify(idempotencyRecordRepository).save(claim);
+	}
+
+	@Test
+	void fingerprintsIdentifyThePayment() {
+		TransactionRequest request = request(1L, "alice@example.com", 1000);
+
+		assertThat(IdempotencyService.fingerprint(request)).hasSize(64)
+				.isEqualTo(IdempotencyService.fingerprint(request(1L, " Alice@Example.com", 1000)));
+		assertThat(IdempotencyService.fingerprint(request)).isNotEqualTo(IdempotencyService.fingerprint(request(1L, "alice@example.com", 1001)));
+		assertThat(IdempotencyService.fingerprint(request)).isNotEqualTo(IdempotencyService.fingerprint(request(2L, "alice@example.com", 1000)));
+	}
+
+	private static IdempotencyRecord inFlightRecord(String key, LocalDateTime leaseExpiresAt) {
+		LocalDateTime now = LocalDateTime.now();
+		return new IdempotencyRecord(key, HASH, now.minusMinutes(10), leaseExpiresAt, now.plusHours(24));
+	}
+
+	private static TransactionRequest request(Long senderId, String recipientEmail, long amountMinorUnits) {
+		TransactionRequest request = new TransactionRequest();
+		request.setSenderId(senderId);
+		request.setRecipientEmail(recipientEmail);
+		request.setAmount(Money.ofMinor(amountMinorUnits));
+		return request;
+	}
+
+	private static Transaction transaction(Long id) {
+		Transaction transaction = new Transaction();
+		transaction.setId(id);
+		transaction.setStatus("COMPLETED");
+		return transaction;
+	}
+}
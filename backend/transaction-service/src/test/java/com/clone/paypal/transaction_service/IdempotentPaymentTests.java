@@ -0,0 +1,137 @@
+package com.clone.paypal.transaction_service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+// A payment whose first attempt moved the money and then never recorded it, retried on another instance
+// once the claim's lease ran out. The stub wallet-service applies each transfer id once, like the real one.
+@DataJpaTest
+@Import({IdempotencyService.class, NotificationOutboxService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // each save commits on its own, as in production
+class IdempotentPaymentTests {
+
+	private static final Long SENDER_ID = 1L;
+	private static final Long RECIPIENT_ID = 2L;
+	private static final String RECIPIENT_EMAIL = "alice@example.com";
+	private static final String HASH = "request-hash";
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private NotificationOutboxService notificationOutboxService;
+
+	@Autowired
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private NotificationOutboxRepository notificationOutboxRepository;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Set<String> appliedTransfers = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger transferCalls = new AtomicInteger();
+	// Fresh per test, since IdempotencyService remembers finished keys.
+	private final String key = "payment-" + UUID.randomUUID();
+	private final String claimedKey = SENDER_ID + ":" + key;
+
+	@BeforeEach
+	void setUp() {
+		notificationOutboxRepository.deleteAll();
+		idempotencyRecordRepository.deleteAll();
+		transactionRepository.deleteAll();
+		// The first attempt claimed the key; its lease ran out while it was gone.
+		LocalDateTime now = LocalDateTime.now();
+		idempotencyRecordRepository.save(new IdempotencyRecord(claimedKey, HASH, now.minusMinutes(2), now.minusMinutes(1), now.plusHours(24)));
+	}
+
+	@Test
+	void aRetryAfterTheClaimantDiedPastTheTransferDoesNotPayTwice() {
+		NotificationOutboxService unreachable = mock(NotificationOutboxService.class);
+		when(unreachable.saveWithNotifications(any(), anyList(), any())).thenThrow(new IllegalStateException("instance died"));
+		assertThatThrownBy(() -> instance(unreachable).performTransaction(SENDER_ID, RECIPIENT_EMAIL, Money.ofMinor(100), claimedKey))
+				.isInstanceOf(UnrecordedTransferException.class);
+
+		Transaction retried = retry().join();
+
+		assertThat(retried.getStatus()).isEqualTo("COMPLETED");
+		assertThat(transferCalls).hasValue(2);
+		assertThat(appliedTransfers).containsExactly(claimedKey);
+		assertThat(transactionRepository.count()).isEqualTo(1);
+		assertThat(idempotencyRecordRepository.findById(claimedKey).orElseThrow().getTransactionId()).isEqualTo(retried.getId());
+	}
+
+	@Test
+	void aHungClaimantThatFinishesAfterTheRetryIsNotRecordedTwice() {
+		Transaction retried = retry().join();
+
+		assertThatThrownBy(() -> instance(notificationOutboxService).performTransaction(SENDER_ID, RECIPIENT_EMAIL, Money.ofMinor(100), claimedKey))
+				.isInstanceOf(IdempotencyConflictException.class);
+
+		assertThat(appliedTransfers).containsExactly(claimedKey);
+		assertThat(transactionRepository.findAll()).extracting(Transaction::getId).containsExactly(retried.getId());
+		// Only the recorded payment queued notifications.
+		assertThat(notificationOutboxRepository.count()).isEqualTo(2);
+	}
+
+	private CompletableFuture<Transaction> retry() {
+		TransactionService instance = instance(notificationOutboxService);
+		return idempotencyService.execute(SENDER_ID, key, HASH,
+				claimed -> instance.submitTransaction(SENDER_ID, RECIPIENT_EMAIL, Money.ofMinor(100), claimed));
+	}
+
+	// One transaction-service instance in blocking mode, talking to the shared stub wallet-service.
+	private TransactionService instance(NotificationOutboxService outbox) {
+		RestTemplate restTemplate = new RestTemplate();
+		MockRestServiceServer walletService = MockRestServiceServer.bindTo(restTemplate).build();
+		walletService.expect(ExpectedCount.manyTimes(), requestTo("http://WALLET-SERVICE/api/wallets/transfer"))
+				.andRespond(request -> {
+					transferCalls.incrementAndGet();
+					String body = ((MockClientHttpRequest) request).getBodyAsString();
+					appliedTransfers.add(objectMapper.readTree(body).get("transferId").asText());
+					return withSuccess().createResponse(request);
+				});
+
+		RecipientCache recipientCache = new RecipientCache(100, 600, 30);
+		recipientCache.putFound(RECIPIENT_EMAIL, RECIPIENT_ID);
+		RecipientResolver recipientResolver = new RecipientResolver();
+		ReflectionTestUtils.setField(recipientResolver, "recipientCache", recipientCache);
+
+		TransactionService transactionService = new TransactionService();
+		ReflectionTestUtils.setField(transactionService, "restTemplate", restTemplate);
+		ReflectionTestUtils.setField(transactionService, "webClient", WebClient.create());
+		ReflectionTestUtils.setField(transactionService, "recipientResolver", recipientResolver);
+		ReflectionTestUtils.setField(transactionService, "notificationOutboxService", outbox);
+		return transactionService;
+	}
+}
@@ -0,0 +1,52 @@
+package com.clone.paypal.transaction_service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// The per-payment money work: parse the request amount, apply it to a balance and build the two
+// notification messages. Compares the old BigDecimal + String.format path with Money.
+// Run with: mvn test-compile exec:java -Dexec.mainClass=com.clone.paypal.transaction_service.MoneyBenchmark -Dexec.classpathScope=test
+// The GC profiler reports gc.alloc.rate.norm (bytes allocated per payment) next to throughput.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+	private final String amountText = "1234.50";
+	private final String recipientEmail = "bob@example.com";
+	private final long senderId = 42L;
+	private BigDecimal bigDecimalBalance = new BigDecimal("100000.00");
+	private Money moneyBalance = Money.parse("100000.00");
+
+	@Benchmark
+	public void bigDecimal(Blackhole blackhole) {
+		BigDecimal amount = new BigDecimal(amountText);
+		bigDecimalBalance = bigDecimalBalance.add(amount);
+		blackhole.consume(String.format("You sent %.2f to user %s.", amount.doubleValue(), recipientEmail));
+		blackhole.consume(String.format("You received %.2f from user %d.", amount.doubleValue(), senderId));
+	}
+
+	@Benchmark
+	public void money(Blackhole blackhole) {
+		Money amount = Money.parse(amountText);
+		moneyBalance = moneyBalance.plus(amount);
+		blackhole.consume("You sent " + amount + " to user " + recipientEmail + ".");
+		blackhole.consume("You received " + amount + " from user " + senderId + ".");
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(MoneyBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
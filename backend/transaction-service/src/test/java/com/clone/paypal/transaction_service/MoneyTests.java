@@ -0,0 +1,42 @@
+package com.clone.paypal.transaction_service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTests {
+
+	@Test
+	void parsesIntoMinorUnits() {
+		assertThat(Money.parse("25").getMinorUnits()).isEqualTo(2500);
+		assertThat(Money.parse("25.5").getMinorUnits()).isEqualTo(2550);
+		assertThat(Money.parse("25.05").getMinorUnits()).isEqualTo(2505);
+		assertThat(Money.parse("-0.10").getMinorUnits()).isEqualTo(-10);
+		assertThat(Money.parse("1.2300").getMinorUnits()).isEqualTo(123);
+		assertThat(Money.parse("1e2").getMinorUnits()).isEqualTo(10000);
+		assertThatThrownBy(() -> Money.parse("1.234")).isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> Money.parse("12a")).isInstanceOf(NumberFormatException.class);
+	}
+
+	@Test
+	void formatsLikeTwoDecimalPlaces() {
+		assertThat(Money.ofMinor(2505)).hasToString("25.05");
+		assertThat(Money.ofMinor(-5)).hasToString("-0.05");
+		assertThat(Money.ofMinor(0)).hasToString("0.00");
+		assertThat(Money.of(new BigDecimal("1234.50")).toBigDecimal()).isEqualByComparingTo("1234.50");
+	}
+
+	@Test
+	void roundTripsThroughJsonAsPlainNumber() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		TransactionRequest request = mapper.readValue("{\"senderId\":1,\"amount\":25.5}", TransactionRequest.class);
+
+		assertThat(request.getAmount()).isEqualTo(Money.ofMinor(2550));
+		assertThat(mapper.writeValueAsString(new WalletTransferRequest(1L, 2L, request.getAmount(), null)))
+				.contains("\"amount\":25.50");
+	}
+}
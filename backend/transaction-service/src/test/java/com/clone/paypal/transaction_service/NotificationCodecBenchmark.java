@@ -0,0 +1,64 @@
+package com.clone.paypal.transaction_service;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Encodes and decodes one notification_topic record with the old Spring JSON (de)serializers and with
+// NotificationRequestCodec, and prints the bytes per event of each (value plus the JSON type header).
+// Run with: mvn test-compile exec:java -Dexec.mainClass=com.clone.paypal.transaction_service.NotificationCodecBenchmark -Dexec.classpathScope=test
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationCodecBenchmark {
+	private static final String TOPIC = KafkaProducerService.TOPIC;
+
+	private final NotificationRequest request = new NotificationRequest(1234567L, "You received 1234.50 from user 42.");
+	private final JsonSerializer<NotificationRequest> jsonSerializer = new JsonSerializer<>();
+	private final JsonDeserializer<NotificationRequest> jsonDeserializer = new JsonDeserializer<>();
+	private final NotificationRequestSerializer binarySerializer = new NotificationRequestSerializer();
+	private final NotificationRequestDeserializer binaryDeserializer = new NotificationRequestDeserializer();
+
+	@Setup
+	public void setUp() {
+		jsonDeserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, NotificationRequest.class.getPackageName()), false);
+	}
+
+	@Benchmark
+	public NotificationRequest json() {
+		RecordHeaders headers = new RecordHeaders();
+		byte[] value = jsonSerializer.serialize(TOPIC, headers, request);
+		return jsonDeserializer.deserialize(TOPIC, headers, value);
+	}
+
+	@Benchmark
+	public NotificationRequest binary() {
+		return binaryDeserializer.deserialize(TOPIC, binarySerializer.serialize(TOPIC, request));
+	}
+
+	public static void main(String[] args) throws Exception {
+		NotificationCodecBenchmark benchmark = new NotificationCodecBenchmark();
+		RecordHeaders headers = new RecordHeaders();
+		int jsonValue = benchmark.jsonSerializer.serialize(TOPIC, headers, benchmark.request).length;
+		int jsonHeaders = 0;
+		for (var header : headers) {
+			jsonHeaders += header.key().length() + header.value().length;
+		}
+		int binaryValue = benchmark.binarySerializer.serialize(TOPIC, benchmark.request).length;
+		System.out.printf("Bytes per event: json=%d (value %d + type header %d), binary=%d%n",
+				jsonValue + jsonHeaders, jsonValue, jsonHeaders, binaryValue);
+
+		new Runner(new OptionsBuilder()
+				.include(NotificationCodecBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
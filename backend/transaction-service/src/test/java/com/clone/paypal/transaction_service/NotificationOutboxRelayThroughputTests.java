@@ -0,0 +1,165 @@
+package com.clone.paypal.transaction_service;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.reset;
+
+// Fills the outbox with a backlog, drains it with one relay run and reports events per second. Also checks
+// that a batch is claimed, sent and deleted without holding row locks while Kafka acknowledges it.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.kafka.producer.bootstrap-servers=${spring.embedded.kafka.brokers}",
+		"eureka.client.enabled=false",
+		// Only the explicit relay() call below drains the outbox.
+		"transaction.outbox.poll-interval-ms=3600000"
+})
+@EmbeddedKafka(partitions = 4, topics = KafkaProducerService.TOPIC)
+class NotificationOutboxRelayThroughputTests {
+
+	private static final int USERS = 50;
+	private static final int EVENTS = 20_000;
+
+	@Autowired
+	private NotificationOutboxRepository notificationOutboxRepository;
+
+	@Autowired
+	private NotificationOutboxRelay notificationOutboxRelay;
+
+	@Autowired
+	private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+	@SpyBean
+	private KafkaProducerService kafkaProducerService;
+
+	@BeforeEach
+	void setUp() {
+		reset(kafkaProducerService);
+		notificationOutboxRepository.deleteAll();
+	}
+
+	@Test
+	void drainsABacklogInOrderPerUser() {
+		List<NotificationOutboxEntry> backlog = new ArrayList<>();
+		for (int i = 0; i < EVENTS; i++) {
+			backlog.add(new NotificationOutboxEntry(new NotificationRequest((long) (i % USERS), String.valueOf(i)), LocalDateTime.now()));
+		}
+		notificationOutboxRepository.saveAll(backlog);
+
+		long start = System.nanoTime();
+		notificationOutboxRelay.relay();
+		long elapsedNanos = System.nanoTime() - start;
+
+		assertThat(notificationOutboxRepository.count()).isZero();
+		System.out.printf("Relayed %d outbox events in %d ms (%.0f events/s)%n",
+				EVENTS, elapsedNanos / 1_000_000, EVENTS / (elapsedNanos / 1e9));
+
+		Map<String, Integer> lastSeen = new HashMap<>();
+		int received = 0;
+		try (Consumer<String, NotificationRequest> consumer = consumer()) {
+			embeddedKafkaBroker.consumeFromAnEmbeddedTopic(consumer, KafkaProducerService.TOPIC);
+			while (received < EVENTS) {
+				var records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10));
+				assertThat(records.count()).as("records after %d", received).isPositive();
+				for (ConsumerRecord<String, NotificationRequest> record : records) {
+					int sequence = Integer.parseInt(record.value().getMessage());
+					assertThat(record.key()).isEqualTo(String.valueOf(record.value().getUserId()));
+					assertThat(sequence).isGreaterThan(lastSeen.getOrDefault(record.key(), -1));
+					lastSeen.put(record.key(), sequence);
+					received++;
+				}
+			}
+		}
+		assertThat(received).isEqualTo(EVENTS);
+		assertThat(lastSeen).hasSize(USERS);
+	}
+
+	@Test
+	void sendsOutsideTheClaimingTransaction() throws Exception {
+		saveEntries(3);
+		AtomicBoolean inTransaction = new AtomicBoolean();
+		AtomicInteger relayedMeanwhile = new AtomicInteger(-1);
+		ExecutorService otherRelay = Executors.newSingleThreadExecutor();
+		try {
+			doAnswer(invocation -> {
+				if (relayedMeanwhile.get() < 0) {
+					inTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+					// Would block on the row locks if the claim were still open; instead it sees the claim and backs off.
+					relayedMeanwhile.set(otherRelay.submit(notificationOutboxRelay::relayBatch).get(5, TimeUnit.SECONDS));
+				}
+				return invocation.callRealMethod();
+			}).when(kafkaProducerService).sendNotificationEvent(any());
+
+			assertThat(notificationOutboxRelay.relayBatch()).isEqualTo(3);
+		} finally {
+			otherRelay.shutdownNow();
+		}
+		assertThat(inTransaction).isFalse();
+		assertThat(relayedMeanwhile).hasValue(0);
+		assertThat(notificationOutboxRepository.count()).isZero();
+	}
+
+	@Test
+	void aFailedSendReleasesTheClaim() {
+		saveEntries(3);
+		doReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+				.when(kafkaProducerService).sendNotificationEvent(any());
+
+		assertThatThrownBy(() -> notificationOutboxRelay.relayBatch()).isInstanceOf(IllegalStateException.class);
+		assertThat(notificationOutboxRepository.findAll()).hasSize(3)
+				.allSatisfy(entry -> assertThat(entry.getClaimedUntil()).isNull());
+
+		reset(kafkaProducerService);
+		assertThat(notificationOutboxRelay.relayBatch()).isEqualTo(3);
+		assertThat(notificationOutboxRepository.count()).isZero();
+	}
+
+	private void saveEntries(int count) {
+		List<NotificationOutboxEntry> entries = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			entries.add(new NotificationOutboxEntry(new NotificationRequest(1L, String.valueOf(i)), LocalDateTime.now()));
+		}
+		notificationOutboxRepository.saveAll(entries);
+	}
+
+	private Consumer<String, NotificationRequest> consumer() {
+		Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-throughput", "false", embeddedKafkaBroker);
+		props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+		props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, NotificationRequestDeserializer.class);
+		props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5000);
+		return new KafkaConsumer<>(props);
+	}
+}
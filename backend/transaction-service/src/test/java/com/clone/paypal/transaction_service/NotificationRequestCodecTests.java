@@ -0,0 +1,85 @@
+package com.clone.paypal.transaction_service;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationRequestCodecTests {
+
+	private final NotificationRequestSerializer serializer = new NotificationRequestSerializer();
+	private final NotificationRequestDeserializer deserializer = new NotificationRequestDeserializer();
+
+	@Test
+	void roundTrips() {
+		for (Long userId : new Long[] {0L, 1L, 300L, -5L, Long.MAX_VALUE, Long.MIN_VALUE, null}) {
+			NotificationRequest decoded = roundTrip(new NotificationRequest(userId, "You received 25.00 from user 7. ✓"));
+			assertThat(decoded.getUserId()).isEqualTo(userId);
+			assertThat(decoded.getMessage()).isEqualTo("You received 25.00 from user 7. ✓");
+		}
+		assertThat(roundTrip(new NotificationRequest(1L, null)).getMessage()).isNull();
+		assertThat(roundTrip(new NotificationRequest(1L, "")).getMessage()).isEmpty();
+	}
+
+	@Test
+	void roundTripsEventFields() {
+		NotificationRequest request = new NotificationRequest(7L, "You sent 25.00 to user bob@example.com.",
+				NotificationRequest.PAYMENT_SENT, 2500L);
+		request.setEventId("42:PAYMENT_SENT");
+
+		NotificationRequest decoded = roundTrip(request);
+
+		assertThat(decoded.getEventId()).isEqualTo("42:PAYMENT_SENT");
+		assertThat(decoded.getType()).isEqualTo(NotificationRequest.PAYMENT_SENT);
+		assertThat(decoded.getAmountMinorUnits()).isEqualTo(2500L);
+		assertThat(decoded.getMessage()).isEqualTo(request.getMessage());
+	}
+
+	@Test
+	void readsVersionOneRecords() {
+		// version 1, userId and message present, userId 42, message "hi"
+		byte[] versionOne = {1, 3, 84, 2, 'h', 'i'};
+
+		NotificationRequest decoded = deserializer.deserialize("notification_topic", versionOne);
+
+		assertThat(decoded.getUserId()).isEqualTo(42L);
+		assertThat(decoded.getMessage()).isEqualTo("hi");
+		assertThat(decoded.getEventId()).isNull();
+	}
+
+	@Test
+	void isSmallerThanJson() {
+		byte[] encoded = serializer.serialize("notification_topic", new NotificationRequest(42L, "You sent 25.00 to user bob@example.com."));
+		// version + flags + 1-byte userId + 1-byte length + 39 message bytes
+		assertThat(encoded).hasSize(43);
+	}
+
+	@Test
+	void stillReadsJsonRecords() {
+		byte[] json = "{\"userId\":42,\"message\":\"hi\"}".getBytes(StandardCharsets.UTF_8);
+
+		NotificationRequest decoded = deserializer.deserialize("notification_topic", json);
+
+		assertThat(decoded.getUserId()).isEqualTo(42L);
+		assertThat(decoded.getMessage()).isEqualTo("hi");
+	}
+
+	@Test
+	void rejectsUnknownVersionsAndTruncatedRecords() {
+		byte[] encoded = serializer.serialize("notification_topic", new NotificationRequest(42L, "hello"));
+		byte[] truncated = Arrays.copyOf(encoded, encoded.length - 2);
+		byte[] future = encoded.clone();
+		future[0] = 99;
+
+		assertThatThrownBy(() -> deserializer.deserialize("notification_topic", truncated)).isInstanceOf(SerializationException.class);
+		assertThatThrownBy(() -> deserializer.deserialize("notification_topic", future)).isInstanceOf(SerializationException.class);
+	}
+
+	private NotificationRequest roundTrip(NotificationRequest request) {
+		return deserializer.deserialize("notification_topic", serializer.serialize("notification_topic", request));
+	}
+}
@@ -0,0 +1,55 @@
+package com.clone.paypal.transaction_service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipientCacheTests {
+
+	@Test
+	void remembersFoundAndMissingRecipients() {
+		RecipientCache cache = new RecipientCache(100, 600, 30);
+
+		assertThat(cache.get("alice@example.com")).isNull();
+
+		cache.putFound("alice@example.com", 7L);
+		cache.putNotFound("bob@example.com");
+
+		assertThat(cache.get("alice@example.com").userId()).isEqualTo(7L);
+		assertThat(cache.get("bob@example.com").isFound()).isFalse();
+		assertThat(cache.stats()).containsEntry("hits", 2L).containsEntry("misses", 1L);
+	}
+
+	@Test
+	void missingRecipientsExpireOnTheirOwnTtl() {
+		RecipientCache cache = new RecipientCache(100, 600, 0);
+
+		cache.putFound("alice@example.com", 7L);
+		cache.putNotFound("bob@example.com");
+
+		assertThat(cache.get("alice@example.com")).isNotNull();
+		assertThat(cache.get("bob@example.com")).isNull();
+	}
+
+	@Test
+	void invalidateDropsTheEntry() {
+		RecipientCache cache = new RecipientCache(100, 600, 30);
+
+		cache.putNotFound("carol@example.com");
+		cache.invalidate("carol@example.com");
+
+		assertThat(cache.get("carol@example.com")).isNull();
+	}
+
+	@Test
+	void emailsAreMatchedLikeUserServiceStoresThem() {
+		RecipientCache cache = new RecipientCache(100, 600, 30);
+
+		cache.putFound(" Alice@Example.com", 7L);
+		assertThat(cache.get("alice@example.com").userId()).isEqualTo(7L);
+
+		// user_events carry the stored (lowercased) email.
+		cache.invalidate("alice@example.com");
+		assertThat(cache.get("ALICE@example.com ")).isNull();
+	}
+}
@@ -0,0 +1,82 @@
+package com.clone.paypal.transaction_service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionExportServiceTests {
+
+	private static final LocalDateTime NOON = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+	private TransactionExportService transactionExportService;
+	private TransactionRepository transactionRepository;
+
+	@BeforeEach
+	void setUp() {
+		transactionExportService = new TransactionExportService();
+		transactionRepository = mock(TransactionRepository.class);
+		ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		ReflectionTestUtils.setField(transactionExportService, "transactionRepository", transactionRepository);
+		ReflectionTestUtils.setField(transactionExportService, "entityManager", mock(EntityManager.class));
+		ReflectionTestUtils.setField(transactionExportService, "objectMapper", objectMapper);
+		when(transactionRepository.streamStatement(eq(1L), any(), any()))
+				.thenAnswer(invocation -> Stream.of(
+						transaction(1L, "COMPLETED"),
+						transaction(2L, "FAILED: Insufficient funds, \"retry\" later")));
+	}
+
+	@Test
+	void writesCsvWithQuotedStatuses() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		transactionExportService.export(1L, null, null, TransactionExportService.Format.CSV, false, out);
+
+		assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+				"id,timestamp,senderId,recipientId,amount,status\n"
+						+ "1,2024-01-01T12:00,1,2,25.00,COMPLETED\n"
+						+ "2,2024-01-01T12:00,1,2,25.00,\"FAILED: Insufficient funds, \"\"retry\"\" later\"\n");
+	}
+
+	@Test
+	void writesGzippedNdjson() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		transactionExportService.export(1L, null, null, TransactionExportService.Format.NDJSON, true, out);
+
+		String body;
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		assertThat(body.split("\n")).hasSize(2)
+				.allSatisfy(line -> assertThat(line).startsWith("{").contains("\"amount\":25.00"));
+	}
+
+	private static Transaction transaction(Long id, String status) {
+		Transaction transaction = new Transaction();
+		transaction.setId(id);
+		transaction.setSenderId(1L);
+		transaction.setRecipientId(2L);
+		transaction.setAmount(Money.parse("25"));
+		transaction.setStatus(status);
+		transaction.setTimestamp(NOON);
+		return transaction;
+	}
+}
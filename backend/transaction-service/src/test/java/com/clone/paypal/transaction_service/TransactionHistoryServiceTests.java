@@ -0,0 +1,93 @@
+package com.clone.paypal.transaction_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionHistoryServiceTests {
+
+	private static final LocalDateTime NOON = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+	private TransactionHistoryService transactionHistoryService;
+	private TransactionRepository transactionRepository;
+
+	@BeforeEach
+	void setUp() {
+		transactionHistoryService = new TransactionHistoryService();
+		transactionRepository = mock(TransactionRepository.class);
+		ReflectionTestUtils.setField(transactionHistoryService, "transactionRepository", transactionRepository);
+	}
+
+	@Test
+	void mergesBothSidesNewestFirstAndHandsOutACursor() {
+		Transaction selfPayment = transaction(4L, NOON.plusMinutes(3));
+		when(transactionRepository.findSentPage(eq(1L), isNull(), isNull(), isNull(), isNull(), isNull(), any()))
+				.thenReturn(List.of(selfPayment, transaction(2L, NOON.plusMinutes(1))));
+		when(transactionRepository.findReceivedPage(eq(1L), isNull(), isNull(), isNull(), isNull(), isNull(), any()))
+				.thenReturn(List.of(selfPayment, transaction(3L, NOON.plusMinutes(2)), transaction(1L, NOON)));
+
+		TransactionPage page = transactionHistoryService.page(1L, TransactionHistoryService.Direction.ALL,
+				null, null, null, null, 2);
+
+		assertThat(page.getItems()).extracting(Transaction::getId).containsExactly(4L, 3L);
+		assertThat(TransactionCursor.decode(page.getNextCursor())).isEqualTo(new TransactionCursor(NOON.plusMinutes(2), 3L));
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		when(transactionRepository.findSentPage(eq(1L), any(), any(), any(), any(), any(), any()))
+				.thenReturn(List.of(transaction(1L, NOON)));
+
+		TransactionPage page = transactionHistoryService.page(1L, TransactionHistoryService.Direction.SENT,
+				null, null, null, new TransactionCursor(NOON.plusDays(1), 9L).encode(), 20);
+
+		assertThat(page.getItems()).hasSize(1);
+		assertThat(page.getNextCursor()).isNull();
+	}
+
+	@Test
+	void filtersByOutcome() {
+		when(transactionRepository.findReceivedPage(eq(1L), eq(Transaction.FAILED), any(), any(), any(), any(), any()))
+				.thenReturn(List.of(transaction(1L, NOON)));
+
+		TransactionPage page = transactionHistoryService.page(1L, TransactionHistoryService.Direction.RECEIVED,
+				" failed", null, null, null, 20);
+
+		assertThat(page.getItems()).extracting(Transaction::getId).containsExactly(1L);
+		assertThatThrownBy(() -> transactionHistoryService.page(1L, TransactionHistoryService.Direction.ALL,
+				"FAILED: Recipient", null, null, null, 20)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void outcomeFollowsStatus() {
+		Transaction transaction = new Transaction();
+
+		transaction.setStatus("FAILED: Error fetching recipient user: 500 Internal Server Error");
+		assertThat(transaction.getOutcome()).isEqualTo(Transaction.FAILED);
+		transaction.setStatus(Transaction.COMPLETED);
+		assertThat(transaction.getOutcome()).isEqualTo(Transaction.COMPLETED);
+	}
+
+	@Test
+	void rejectsForeignCursors() {
+		assertThatThrownBy(() -> TransactionCursor.decode("not-a-cursor")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static Transaction transaction(Long id, LocalDateTime timestamp) {
+		Transaction transaction = new Transaction();
+		transaction.setId(id);
+		transaction.setTimestamp(timestamp);
+		return transaction;
+	}
+}
@@ -0,0 +1,71 @@
+package com.clone.paypal.transaction_service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Load test for POST /api/transactions against a running stack. Run it once with
+// transaction.pipeline.mode=blocking and once with reactive, then compare the results:
+//   java ... TransactionLoadGenerator http://localhost:8083 <concurrency> <requests> <senderId> <recipientEmail>
+// Reports throughput, p50/p99 latency and the highest number of payments that were in flight together.
+public class TransactionLoadGenerator {
+
+	public static void main(String[] args) throws Exception {
+		String baseUrl = args.length > 0 ? args[0] : "http://localhost:8083";
+		int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+		int requests = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+		String senderId = args.length > 3 ? args[3] : "1";
+		String recipientEmail = args.length > 4 ? args[4] : "bob@example.com";
+
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions"))
+				.header("Content-Type", "application/json")
+				.timeout(Duration.ofSeconds(60))
+				.POST(HttpRequest.BodyPublishers.ofString(
+						"{\"senderId\":" + senderId + ",\"recipientEmail\":\"" + recipientEmail + "\",\"amount\":0.01}"))
+				.build();
+
+		Semaphore permits = new Semaphore(concurrency);
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		List<Long> latenciesMicros = Collections.synchronizedList(new ArrayList<>(requests));
+		List<CompletableFuture<?>> futures = new ArrayList<>(requests);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < requests; i++) {
+			permits.acquire();
+			long sentAt = System.nanoTime();
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+					.whenComplete((response, error) -> {
+						inFlight.decrementAndGet();
+						permits.release();
+						if (error != null || response.statusCode() != 200) {
+							errors.incrementAndGet();
+						}
+						latenciesMicros.add((System.nanoTime() - sentAt) / 1_000);
+					}));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+		double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+		List<Long> sorted = new ArrayList<>(latenciesMicros);
+		Collections.sort(sorted);
+		System.out.printf("requests=%d errors=%d throughput=%.0f/s max-in-flight=%d p50=%.1fms p99=%.1fms%n",
+				requests, errors.get(), requests / seconds, maxInFlight.get(),
+				percentile(sorted, 0.50) / 1000.0, percentile(sorted, 0.99) / 1000.0);
+	}
+
+	private static long percentile(List<Long> sorted, double p) {
+		return sorted.isEmpty() ? 0 : sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1));
+	}
+}
@@ -0,0 +1,64 @@
+package com.clone.paypal.transaction_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class TransactionRepositoryTests {
+
+	private static final LocalDateTime NOON = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void pagesThroughOneOutcomeWithTheCursor() {
+		for (int i = 0; i < 6; i++) {
+			save(1L, 2L, i % 2 == 0 ? Transaction.COMPLETED : "FAILED: Insufficient funds", NOON.plusMinutes(i / 2));
+		}
+
+		List<Transaction> first = transactionRepository.findSentPage(1L, Transaction.FAILED, null, null, null, null, PageRequest.of(0, 2));
+		Transaction last = first.get(1);
+		List<Transaction> second = transactionRepository.findSentPage(1L, Transaction.FAILED, null, null,
+				last.getTimestamp(), last.getId(), PageRequest.of(0, 2));
+
+		assertThat(first).extracting(Transaction::getTimestamp).containsExactly(NOON.plusMinutes(2), NOON.plusMinutes(1));
+		assertThat(second).extracting(Transaction::getTimestamp).containsExactly(NOON);
+		assertThat(first).allSatisfy(t -> assertThat(t.getStatus()).startsWith("FAILED"));
+		assertThat(transactionRepository.findReceivedPage(2L, null, null, null, null, null, PageRequest.of(0, 10))).hasSize(6);
+	}
+
+	@Test
+	void backfillsOutcomesOfOlderRows() {
+		save(1L, 2L, Transaction.COMPLETED, NOON);
+		save(1L, 2L, "FAILED: Recipient user not found", NOON);
+		transactionRepository.flush();
+		jdbcTemplate.update("update transactions set outcome = null");
+
+		assertThat(transactionRepository.backfillOutcomes()).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForList("select outcome from transactions order by id", String.class))
+				.containsExactly(Transaction.COMPLETED, Transaction.FAILED);
+		assertThat(transactionRepository.backfillOutcomes()).isZero();
+	}
+
+	private Transaction save(Long senderId, Long recipientId, String status, LocalDateTime timestamp) {
+		Transaction transaction = new Transaction();
+		transaction.setSenderId(senderId);
+		transaction.setRecipientId(recipientId);
+		transaction.setAmount(Money.ofMinor(100));
+		transaction.setStatus(status);
+		transaction.setTimestamp(timestamp);
+		return transactionRepository.save(transaction);
+	}
+}
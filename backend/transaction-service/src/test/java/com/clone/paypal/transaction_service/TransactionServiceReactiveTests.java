@@ -0,0 +1,217 @@
+package com.clone.paypal.transaction_service;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Runs performTransactionReactive against a local HTTP server standing in for user-service and wallet-service.
+class TransactionServiceReactiveTests {
+
+	private static final Long SENDER_ID = 1L;
+	private static final Long RECIPIENT_ID = 2L;
+	private static final String USER_PATH = "/api/users/email/";
+
+	private DisposableServer server;
+	private final NotificationOutboxService notificationOutboxService = mock(NotificationOutboxService.class);
+	private final TransactionService transactionService = new TransactionService();
+	private final AtomicInteger transfers = new AtomicInteger();
+
+	// How the stub wallet-service answers /transfer.
+	private volatile HttpResponseStatus transferStatus = HttpResponseStatus.OK;
+	private volatile long transferDelayMs = 0;
+
+	@BeforeEach
+	void setUp() {
+		server = HttpServer.create()
+				.host("localhost")
+				.port(0)
+				.route(routes -> routes
+						.get(USER_PATH + "{email}", this::user)
+						.post("/api/wallets/transfer", this::transfer))
+				.bindNow();
+
+		WebClient webClient = WebClient.builder()
+				.filter((request, next) -> next.exchange(ClientRequest.from(request).url(local(request.url())).build()))
+				.build();
+		RestTemplate restTemplate = new RestTemplate();
+		restTemplate.getInterceptors().add((request, body, execution) -> execution.execute(new HttpRequestWrapper(request) {
+			@Override
+			public URI getURI() {
+				return local(super.getURI());
+			}
+		}, body));
+
+		RecipientResolver recipientResolver = new RecipientResolver();
+		ReflectionTestUtils.setField(recipientResolver, "webClient", webClient);
+		ReflectionTestUtils.setField(recipientResolver, "restTemplate", restTemplate);
+		ReflectionTestUtils.setField(recipientResolver, "recipientCache", new RecipientCache(100, 600, 30));
+		ReflectionTestUtils.setField(transactionService, "webClient", webClient);
+		ReflectionTestUtils.setField(transactionService, "restTemplate", restTemplate);
+		ReflectionTestUtils.setField(transactionService, "recipientResolver", recipientResolver);
+		ReflectionTestUtils.setField(transactionService, "notificationOutboxService", notificationOutboxService);
+		ReflectionTestUtils.setField(transactionService, "callTimeoutMs", 1000L);
+		when(notificationOutboxService.saveWithNotifications(any(), anyList(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		// The first request pays for Reactor Netty's start-up, which shouldn't count against the timeout.
+		webClient.get().uri("http://USER-SERVICE" + USER_PATH + "warm-up").exchangeToMono(response -> response.releaseBody()).block();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.disposeNow();
+	}
+
+	@Test
+	void completesAndQueuesBothNotifications() {
+		Transaction transaction = pay("alice@example.com");
+
+		assertThat(transaction.getStatus()).isEqualTo("COMPLETED");
+		assertThat(transaction.getRecipientId()).isEqualTo(RECIPIENT_ID);
+		assertThat(transfers).hasValue(1);
+		verify(notificationOutboxService).saveWithNotifications(eq(transaction), argThat(notifications -> notifications.size() == 2), any());
+	}
+
+	@Test
+	void mapsLookupFailuresLikeTheBlockingPath() {
+		assertThat(pay("missing@example.com").getStatus()).isEqualTo("FAILED: Recipient user not found");
+		assertThat(pay("broken@example.com").getStatus()).startsWith("FAILED: Error fetching recipient user: 500 Internal Server Error");
+		assertThat(pay("slow@example.com").getStatus()).isEqualTo("FAILED: Error fetching recipient user: Timed out waiting for user-service");
+		assertThat(transfers).hasValue(0);
+		// Failed payments are still recorded, without notifications.
+		verify(notificationOutboxService, times(3)).saveWithNotifications(any(), eq(List.of()), any());
+	}
+
+	@Test
+	void mapsTransferFailuresAndTimeouts() {
+		transferStatus = HttpResponseStatus.BAD_REQUEST;
+		Transaction rejected = pay("alice@example.com");
+		assertThat(rejected.getStatus()).startsWith("FAILED: 400 Bad Request");
+		assertThat(rejected.getRecipientId()).isEqualTo(RECIPIENT_ID);
+
+		transferStatus = HttpResponseStatus.OK;
+		transferDelayMs = 3000;
+		assertThat(pay("alice@example.com").getStatus()).isEqualTo("FAILED: Timed out waiting for wallet-service");
+		verify(notificationOutboxService, times(2)).saveWithNotifications(any(), eq(List.of()), any());
+	}
+
+	@Test
+	void aSaveFailingAfterTheTransferIsReportedAsUnrecorded() {
+		when(notificationOutboxService.saveWithNotifications(any(), anyList(), any())).thenThrow(new IllegalStateException("database down"));
+
+		assertThatThrownBy(() -> pay("alice@example.com")).isInstanceOf(UnrecordedTransferException.class);
+		assertThatThrownBy(() -> pay("missing@example.com")).isInstanceOf(IllegalStateException.class)
+				.isNotInstanceOf(UnrecordedTransferException.class);
+		assertThat(transfers).hasValue(1);
+	}
+
+	// The same payments through both pipelines, against a wallet-service that takes 200 ms per transfer.
+	// The blocking path gets 16 request threads, like a small servlet pool.
+	@Test
+	void reactivePipelineDoesNotNeedAThreadPerPayment() throws Exception {
+		int payments = 400;
+		int requestThreads = 16;
+		transferDelayMs = 200;
+		pay("alice@example.com"); // caches the recipient for both runs
+
+		ExecutorService requestPool = Executors.newFixedThreadPool(requestThreads);
+		long start = System.nanoTime();
+		try {
+			List<Future<Transaction>> futures = new ArrayList<>();
+			for (int i = 0; i < payments; i++) {
+				futures.add(requestPool.submit(() -> transactionService.performTransaction(SENDER_ID, "alice@example.com", Money.ofMinor(100), null)));
+			}
+			for (Future<Transaction> future : futures) {
+				assertThat(future.get().getStatus()).isEqualTo("COMPLETED");
+			}
+		} finally {
+			requestPool.shutdown();
+		}
+		long blockingNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		List<Transaction> reactive = Flux.range(0, payments)
+				.flatMap(i -> transactionService.performTransactionReactive(SENDER_ID, "alice@example.com", Money.ofMinor(100), null), payments)
+				.collectList()
+				.block(Duration.ofSeconds(60));
+		long reactiveNanos = System.nanoTime() - start;
+
+		report("blocking, " + requestThreads + " request threads", payments, blockingNanos);
+		report("reactive", payments, reactiveNanos);
+		assertThat(reactive).hasSize(payments).allSatisfy(t -> assertThat(t.getStatus()).isEqualTo("COMPLETED"));
+		assertThat(transfers).hasValue(2 * payments + 1);
+	}
+
+	private Transaction pay(String recipientEmail) {
+		return transactionService.performTransactionReactive(SENDER_ID, recipientEmail, Money.ofMinor(100), null)
+				.block(Duration.ofSeconds(10));
+	}
+
+	private Mono<Void> user(HttpServerRequest request, HttpServerResponse response) {
+		String email = URLDecoder.decode(request.fullPath().substring(USER_PATH.length()), StandardCharsets.UTF_8);
+		return switch (email) {
+			case "alice@example.com" -> json(response, "{\"id\":" + RECIPIENT_ID + ",\"name\":\"Alice\",\"email\":\"" + email + "\"}");
+			case "broken@example.com" -> response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR).send().then();
+			case "slow@example.com" -> Mono.delay(Duration.ofSeconds(3)).then(json(response, "{\"id\":3}"));
+			default -> response.status(HttpResponseStatus.NOT_FOUND).send().then();
+		};
+	}
+
+	private Mono<Void> transfer(HttpServerRequest request, HttpServerResponse response) {
+		return request.receive().then()
+				.then(Mono.delay(Duration.ofMillis(transferDelayMs)))
+				.then(Mono.defer(() -> {
+					if (HttpResponseStatus.OK.equals(transferStatus)) {
+						transfers.incrementAndGet();
+					}
+					return response.status(transferStatus).send().then();
+				}));
+	}
+
+	private URI local(URI uri) {
+		return UriComponentsBuilder.fromUri(uri).host("localhost").port(server.port()).build(true).toUri();
+	}
+
+	private static Mono<Void> json(HttpServerResponse response, String body) {
+		return response.header("Content-Type", "application/json").sendString(Mono.just(body)).then();
+	}
+
+	private static void report(String label, int payments, long elapsedNanos) {
+		double paymentsPerSecond = payments / (elapsedNanos / 1_000_000_000.0);
+		System.out.printf("%s: %d payments -> %.0f payments/sec%n", label, payments, paymentsPerSecond);
+	}
+}
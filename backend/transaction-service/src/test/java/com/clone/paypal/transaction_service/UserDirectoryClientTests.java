@@ -0,0 +1,126 @@
+package com.clone.paypal.transaction_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.ExpectedCount.never;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServiceUnavailable;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// UserDirectoryClient against a mocked user-service, and the history endpoint when user-service is down.
+class UserDirectoryClientTests {
+
+	private static final String BATCH_URL = "http://USER-SERVICE/api/users/batch";
+	private static final String TOKEN = "Bearer caller-token";
+
+	private final RestTemplate restTemplate = new RestTemplate();
+	private final UserDirectoryClient userDirectoryClient = new UserDirectoryClient();
+	private MockRestServiceServer userService;
+
+	@BeforeEach
+	void setUp() {
+		userService = MockRestServiceServer.bindTo(restTemplate).build();
+		ReflectionTestUtils.setField(userDirectoryClient, "restTemplate", restTemplate);
+	}
+
+	@Test
+	void resolvesIdsWithOneCallCarryingTheCallersToken() {
+		userService.expect(requestTo(BATCH_URL))
+				.andExpect(method(HttpMethod.POST))
+				.andExpect(header(HttpHeaders.AUTHORIZATION, TOKEN))
+				.andExpect(content().json("{\"ids\":[1,2,3]}"))
+				.andRespond(withSuccess("{\"1\":{\"id\":1,\"name\":\"Alice\",\"email\":\"alice@example.com\"},"
+						+ "\"2\":{\"id\":2,\"name\":\"Bob\",\"email\":\"bob@example.com\"}}", MediaType.APPLICATION_JSON));
+
+		Map<Long, User> users = userDirectoryClient.findUsers(List.of(1L, 2L, 3L), TOKEN);
+
+		userService.verify();
+		assertThat(users).containsOnlyKeys(1L, 2L);
+		assertThat(users.get(1L).getName()).isEqualTo("Alice");
+	}
+
+	@Test
+	void anUnavailableOrRefusingUserServiceGivesNoUsers() {
+		userService.expect(requestTo(BATCH_URL)).andRespond(withServiceUnavailable());
+		userService.expect(requestTo(BATCH_URL))
+				.andExpect(headerDoesNotExist(HttpHeaders.AUTHORIZATION))
+				.andRespond(withStatus(HttpStatus.UNAUTHORIZED));
+
+		assertThat(userDirectoryClient.findUsers(List.of(1L), TOKEN)).isEmpty();
+		assertThat(userDirectoryClient.findUsers(List.of(1L), null)).isEmpty();
+		userService.verify();
+	}
+
+	@Test
+	void moreIdsThanOneBatchAreNotSent() {
+		userService.expect(never(), requestTo(BATCH_URL));
+
+		Set<Long> tooMany = LongStream.rangeClosed(1, UserDirectoryClient.MAX_BATCH_SIZE + 1).boxed().collect(Collectors.toSet());
+		assertThat(userDirectoryClient.findUsers(tooMany, TOKEN)).isEmpty();
+		assertThat(userDirectoryClient.findUsers(Set.of(), TOKEN)).isEmpty();
+		userService.verify();
+	}
+
+	@Test
+	void historyIsStillServedWhenUserServiceIsDown() throws Exception {
+		TransactionHistoryService transactionHistoryService = mock(TransactionHistoryService.class);
+		when(transactionHistoryService.page(eq(1L), eq(TransactionHistoryService.Direction.ALL), isNull(), isNull(), isNull(), isNull(), any(Integer.class)))
+				.thenReturn(new TransactionPage(List.of(transaction(1L, 2L)), null));
+		TransactionController controller = new TransactionController();
+		ReflectionTestUtils.setField(controller, "transactionHistoryService", transactionHistoryService);
+		ReflectionTestUtils.setField(controller, "userDirectoryClient", userDirectoryClient);
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+		userService.expect(requestTo(BATCH_URL))
+				.andExpect(header(HttpHeaders.AUTHORIZATION, TOKEN))
+				.andRespond(withServiceUnavailable());
+
+		mockMvc.perform(get("/api/transactions/user/1/history").header(HttpHeaders.AUTHORIZATION, TOKEN))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(1))
+				.andExpect(jsonPath("$.items[0].recipientId").value(2))
+				.andExpect(jsonPath("$.users").isEmpty());
+		userService.verify();
+	}
+
+	private static Transaction transaction(Long senderId, Long recipientId) {
+		Transaction transaction = new Transaction();
+		transaction.setId(10L);
+		transaction.setSenderId(senderId);
+		transaction.setRecipientId(recipientId);
+		transaction.setAmount(Money.ofMinor(100));
+		transaction.setTimestamp(LocalDateTime.of(2024, 1, 1, 12, 0));
+		transaction.setStatus(Transaction.COMPLETED);
+		return transaction;
+	}
+}
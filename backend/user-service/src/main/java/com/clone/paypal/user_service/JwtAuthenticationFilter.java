@@ -0,0 +1,36 @@
+package com.clone.paypal.user_service;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.List;
+
+// Authenticates requests carrying a valid "Authorization: Bearer <jwt>" header, with the TokenClaims as the
+// principal. No database access. Requests with a missing or invalid token continue unauthenticated, and
+// SecurityConfig turns that into a 401 on protected endpoints.
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final String BEARER = "Bearer ";
+
+    private final JwtService jwtService;
+
+    public JwtAuthenticationFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(BEARER)) {
+            jwtService.verify(header.substring(BEARER.length()).trim()).ifPresent(claims ->
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new UsernamePasswordAuthenticationToken(claims, null, List.of())));
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,138 @@
+package com.clone.paypal.user_service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Issues and verifies HS256 JWTs carrying the user's id (sub), name and email, so authenticated requests are
+// served from the token alone. Only tokens with exactly our header are accepted, which rules out "alg": "none"
+// and algorithm confusion. Verified tokens are cached (up to user.jwt.cache-size) until they expire, so a
+// repeat request costs one map lookup instead of an HMAC and a JSON parse.
+@Service
+public class JwtService {
+    private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = ENCODER.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ThreadLocal<Mac> mac; // Mac instances aren't thread-safe
+    private final Duration ttl;
+    private final Clock clock;
+    private final Cache<String, TokenClaims> verified;
+
+    @Autowired
+    public JwtService(@Value("${user.jwt.secret:}") String secret,
+                      @Value("${user.jwt.ttl-minutes:60}") long ttlMinutes,
+                      @Value("${user.jwt.cache-size:10000}") long cacheSize) {
+        this(secret, Duration.ofMinutes(ttlMinutes), cacheSize, Clock.systemUTC());
+    }
+
+    JwtService(String secret, Duration ttl, long cacheSize, Clock clock) {
+        SecretKeySpec key = new SecretKeySpec(keyBytes(secret), "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        });
+        this.ttl = ttl;
+        this.clock = clock;
+        this.verified = cacheSize > 0
+                ? Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(ttl).build()
+                : null;
+    }
+
+    public String issue(User user) {
+        long now = clock.instant().getEpochSecond();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", String.valueOf(user.getId()));
+        claims.put("name", user.getName());
+        claims.put("email", user.getEmail());
+        claims.put("iat", now);
+        claims.put("exp", now + ttl.toSeconds());
+        try {
+            String signingInput = HEADER + "." + ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            return signingInput + "." + ENCODER.encodeToString(sign(signingInput));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not issue token", e);
+        }
+    }
+
+    // Empty if the token is malformed, wrongly signed or expired.
+    public Optional<TokenClaims> verify(String token) {
+        long now = clock.instant().getEpochSecond();
+        TokenClaims cached = verified == null ? null : verified.getIfPresent(token);
+        if (cached != null) {
+            return cached.expiresAt() > now ? Optional.of(cached) : Optional.empty();
+        }
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot || !token.substring(0, firstDot).equals(HEADER)) {
+            return Optional.empty();
+        }
+        try {
+            byte[] expected = sign(token.substring(0, lastDot));
+            if (!MessageDigest.isEqual(expected, DECODER.decode(token.substring(lastDot + 1)))) {
+                return Optional.empty();
+            }
+            Map<?, ?> claims = objectMapper.readValue(DECODER.decode(token.substring(firstDot + 1, lastDot)), Map.class);
+            TokenClaims result = new TokenClaims(Long.valueOf((String) claims.get("sub")), (String) claims.get("name"),
+                    (String) claims.get("email"), ((Number) claims.get("exp")).longValue());
+            if (result.expiresAt() <= now) {
+                return Optional.empty();
+            }
+            if (verified != null) {
+                verified.put(token, result);
+            }
+            return Optional.of(result);
+        } catch (Exception e) {
+            // Bad base64, bad JSON or missing claims
+            return Optional.empty();
+        }
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private byte[] sign(String signingInput) {
+        return mac.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] keyBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            // Fine for a single instance; tokens stop working on restart and aren't accepted by other instances.
+            logger.warn("user.jwt.secret is not set; signing tokens with a random key");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] key = Base64.getDecoder().decode(secret);
+        if (key.length < 32) {
+            throw new IllegalArgumentException("user.jwt.secret must be at least 256 bits, base64-encoded");
+        }
+        return key;
+    }
+}
@@ -0,0 +1,61 @@
+package com.clone.paypal.user_service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs BCrypt on a fixed pool sized to the CPU, so a login storm can't occupy every Tomcat thread with hashing.
+// The queue in front of it is bounded; once it is full new work is rejected with RejectedExecutionException
+// straight away (the controller answers 503) instead of piling up behind requests that will time out anyway.
+@Service
+public class PasswordHashingService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHashingService(@Value("${user.password.hash-threads:0}") int threads,
+                                  @Value("${user.password.queue-capacity:200}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), executor);
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.matches(rawPassword, encodedPassword), executor);
+    }
+
+    // True when the hash was made with a lower cost than user.password.bcrypt-strength.
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,135 @@
+package com.clone.paypal.user_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+// In-memory prefix index over users for recipient autocomplete. Every user has one sorted key per searchable
+// term: the email, the full name and each later word of the name, all lowercased with accents stripped, with
+// "\0<id>" appended so users sharing a term get distinct keys. A search is a range scan from the query to the
+// query followed by Character.MAX_VALUE, stopped after a fixed number of candidates, so its cost depends on
+// the limit and not on the number of users. Built from the users table at startup and kept current by
+// register (and by UserSearchIndexListener for users registered on other instances).
+@Component
+public class RecipientSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(RecipientSearchIndex.class);
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final int CANDIDATES_PER_RESULT = 5;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ConcurrentSkipListMap<String, UserSummary> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, List<String>> keysByUser = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        long afterId = 0;
+        List<UserSummary> batch;
+        do {
+            batch = userRepository.findSummariesAfter(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (UserSummary user : batch) {
+                add(user);
+                afterId = user.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        logger.info("Indexed {} users for recipient search in {} ms", keysByUser.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Adds the user, or re-indexes them if their name or email changed.
+    public void add(UserSummary user) {
+        List<String> keys = new ArrayList<>();
+        for (String term : terms(user)) {
+            keys.add(term + '\0' + user.getId());
+        }
+        List<String> previous = keysByUser.put(user.getId(), keys);
+        if (previous != null) {
+            previous.stream().filter(key -> !keys.contains(key)).forEach(terms::remove);
+        }
+        keys.forEach(key -> terms.put(key, user));
+    }
+
+    // Exact email first, then email prefixes, then name prefixes; shorter emails first within each.
+    public List<UserSummary> search(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Map<Long, UserSummary> candidates = new LinkedHashMap<>();
+        int maxCandidates = limit * CANDIDATES_PER_RESULT;
+        for (UserSummary user : terms.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            candidates.putIfAbsent(user.getId(), user);
+            if (candidates.size() >= maxCandidates) {
+                break;
+            }
+        }
+        return candidates.values().stream()
+                .map(user -> new Ranked(rank(user, prefix), user))
+                .sorted(Comparator.comparingInt(Ranked::rank)
+                        .thenComparingInt(ranked -> ranked.user().getEmail().length())
+                        .thenComparing(ranked -> ranked.user().getEmail()))
+                .limit(limit)
+                .map(Ranked::user)
+                .toList();
+    }
+
+    public int size() {
+        return keysByUser.size();
+    }
+
+    private static int rank(UserSummary user, String prefix) {
+        String email = normalize(user.getEmail());
+        if (email.equals(prefix)) {
+            return 0;
+        }
+        return email.startsWith(prefix) ? 1 : 2;
+    }
+
+    private static Set<String> terms(UserSummary user) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (user.getEmail() != null) {
+            terms.add(normalize(user.getEmail()));
+        }
+        String name = normalize(user.getName());
+        if (!name.isEmpty()) {
+            terms.add(name);
+            String[] words = WHITESPACE.split(name);
+            for (int i = 1; i < words.length; i++) {
+                terms.add(words[i]);
+            }
+        }
+        terms.remove("");
+        return terms;
+    }
+
+    private record Ranked(int rank, UserSummary user) {
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
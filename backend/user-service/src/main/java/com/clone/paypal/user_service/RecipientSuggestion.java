@@ -0,0 +1,58 @@
+package com.clone.paypal.user_service;
+
+// What recipient search shows about a user: the name and a masked email, enough to pick the right person
+// without handing out addresses. Picking one resolves the full email through /id/{id}.
+public class RecipientSuggestion {
+    private Long id;
+    private String name;
+    private String maskedEmail;
+
+    public RecipientSuggestion() {
+    }
+
+    public RecipientSuggestion(Long id, String name, String maskedEmail) {
+        this.id = id;
+        this.name = name;
+        this.maskedEmail = maskedEmail;
+    }
+
+    public static RecipientSuggestion of(UserSummary user) {
+        return new RecipientSuggestion(user.getId(), user.getName(), mask(user.getEmail()));
+    }
+
+    // "alice@example.com" -> "a***@example.com"
+    static String mask(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.indexOf('@');
+        if (at <= 0) {
+            return "***";
+        }
+        return email.charAt(0) + "***" + email.substring(at);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getMaskedEmail() {
+        return maskedEmail;
+    }
+
+    public void setMaskedEmail(String maskedEmail) {
+        this.maskedEmail = maskedEmail;
+    }
+}
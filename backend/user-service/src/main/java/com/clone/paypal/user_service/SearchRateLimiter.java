@@ -0,0 +1,32 @@
+package com.clone.paypal.user_service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Caps recipient searches per caller, so a token can't be used to page through the user list. Each caller
+// gets a one-minute window starting at their first search; the count lives in this instance only, so behind
+// a load balancer a caller gets up to the limit on each instance.
+@Component
+public class SearchRateLimiter {
+
+    private final int requestsPerMinute;
+    private final Cache<Long, AtomicInteger> windows;
+
+    public SearchRateLimiter(@Value("${user.search.requests-per-minute:60}") int requestsPerMinute,
+                             @Value("${user.search.max-callers:100000}") long maxCallers) {
+        this.requestsPerMinute = requestsPerMinute;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxCallers)
+                .expireAfterWrite(1, TimeUnit.MINUTES)
+                .build();
+    }
+
+    // False once the caller has used up this minute's searches.
+    public boolean tryAcquire(Long userId) {
+        return windows.get(userId, id -> new AtomicInteger()).incrementAndGet() <= requestsPerMinute;
+    }
+}
@@ -1,30 +1,42 @@
 package com.clone.paypal.user_service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // Each +1 doubles the cost of a hash. Raising it is safe: old hashes still verify and are upgraded on login.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${user.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtService jwtService) throws Exception {
         http
                 .csrf(csrf -> csrf.disable()) // Disable CSRF for stateless APIs
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // The token is the session
                 .authorizeHttpRequests(auth -> auth
-                                                                        .requestMatchers("/api/users/register", "/api/users/login", "/api/users/me", "/api/users/email/**").permitAll() // Allow public access
+                        .requestMatchers("/api/users/register", "/api/users/login", "/api/users/email/**").permitAll() // Allow public access
+                        // /id/** and /batch hand out names and emails by id, so they need a token. transaction-service
+                        // forwards the caller's.
                         .anyRequest().authenticated() // Secure all other endpoints
-                );
+                )
+                // Not a bean, so Spring Boot doesn't also register it as a plain servlet filter.
+                .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class)
+                .exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
         return http.build();
     }
-}
\ No newline at end of file
+}
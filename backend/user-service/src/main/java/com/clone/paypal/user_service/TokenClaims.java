@@ -0,0 +1,5 @@
+package com.clone.paypal.user_service;
+
+// What a verified token says about its holder. expiresAt is in epoch seconds.
+public record TokenClaims(Long userId, String name, String email, long expiresAt) {
+}
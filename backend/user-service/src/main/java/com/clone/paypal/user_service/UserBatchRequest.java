@@ -0,0 +1,25 @@
+package com.clone.paypal.user_service;
+
+import java.util.List;
+
+// Body of POST /api/users/batch. Either list may be omitted.
+public class UserBatchRequest {
+    private List<Long> ids;
+    private List<String> emails;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getEmails() {
+        return emails;
+    }
+
+    public void setEmails(List<String> emails) {
+        this.emails = emails;
+    }
+}
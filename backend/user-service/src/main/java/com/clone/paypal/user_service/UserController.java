@@ -1,28 +1,63 @@
 package com.clone.paypal.user_service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
+    public static final int MAX_BATCH_SIZE = 500;
+    public static final int DEFAULT_SEARCH_LIMIT = 8;
+    public static final int MAX_SEARCH_LIMIT = 10;
+    public static final int MIN_SEARCH_QUERY_LENGTH = 3;
 
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder; // Inject the password encoder
+    private PasswordHashingService passwordHashingService; // BCrypt runs on its own bounded pool
 
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserLookupCache userLookupCache;
+
+    @Autowired
+    private RecipientSearchIndex recipientSearchIndex;
+
+    @Autowired
+    private SearchRateLimiter searchRateLimiter;
+
+    @Autowired(required = false)
+    private UserEventPublisher userEventPublisher; // Only present when user.events.enabled=true
+
+    // Register and login return futures, so the request thread is released while the password is hashed.
+    // The save after hashing runs on the hashing thread; it is short next to the hash itself.
     @PostMapping("/register")
-    public ResponseEntity<User> registerUser(@RequestBody User user) {
+    public CompletableFuture<ResponseEntity<User>> registerUser(@RequestBody User user) {
         // Hash the password before saving
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        User savedUser = userRepository.save(user);
-        return ResponseEntity.ok(savedUser);
+        return passwordHashingService.encode(user.getPassword()).thenApply(hash -> {
+            user.setPassword(hash);
+            User savedUser = userRepository.save(user);
+            userLookupCache.invalidate(savedUser); // Clears a cached "not found" for this email
+            recipientSearchIndex.add(new UserSummary(savedUser.getId(), savedUser.getName(), savedUser.getEmail()));
+            if (userEventPublisher != null) {
+                userEventPublisher.publish(savedUser.getEmail(), UserEventPublisher.REGISTERED);
+            }
+            return ResponseEntity.ok(savedUser);
+        });
     }
 
     // New Login DTO (Data Transfer Object)
@@ -32,39 +67,107 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> loginUser(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> loginUser(@RequestBody LoginRequest loginRequest) {
         Optional<User> userOptional = userRepository.findByEmail(loginRequest.email);
 
-        if (userOptional.isPresent()) {
-            User user = userOptional.get();
-            if (passwordEncoder.matches(loginRequest.password, user.getPassword())) {
-                // For now, return a simple placeholder token. In a real app, this would be a securely generated JWT.
-                return ResponseEntity.ok(new LoginResponse("dummy-jwt-token-for-" + user.getId(), user.getId(), user.getName()));
-            }
+        if (userOptional.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials"));
         }
+        User user = userOptional.get();
+        return passwordHashingService.matches(loginRequest.password, user.getPassword()).thenApply(matches -> {
+            if (!matches) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+            }
+            rehashIfOutdated(user, loginRequest.password);
+            return ResponseEntity.ok(new LoginResponse(jwtService.issue(user), user.getId(), user.getName()));
+        });
+    }
+
+    // The password pool is saturated; tell the client to back off rather than queue it.
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> passwordHashingBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body("Too many logins, please retry");
+    }
 
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+    // After user.password.bcrypt-strength is raised, each user's hash is upgraded the next time they log in.
+    // Runs in the background and is simply skipped when the pool is busy; the next login tries again.
+    private void rehashIfOutdated(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            passwordHashingService.encode(rawPassword)
+                    .thenAccept(hash -> {
+                        userRepository.replacePasswordHash(user.getId(), user.getPassword(), hash);
+                        userLookupCache.invalidate(user);
+                    });
+        } catch (RejectedExecutionException e) {
+            // Not worth a 503; the login itself succeeded.
+        }
     }
 
-        @GetMapping("/email/{email}")
+    // Called by transaction-service for every payment, so it is served from UserLookupCache.
+    @GetMapping("/email/{email}")
     public ResponseEntity<User> getUserByEmail(@PathVariable String email) {
-        Optional<User> userOptional = userRepository.findByEmail(email);
+        Optional<User> userOptional = userLookupCache.findByEmail(email, userRepository::findByEmail);
         return userOptional.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @GetMapping("/me")
-    public ResponseEntity<User> getAuthenticatedUser(@RequestHeader("Authorization") String authorizationHeader) {
-        // In a real application, you would validate the JWT and extract user information.
-        // For this example, we're extracting the user ID from our dummy token.
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer dummy-jwt-token-for-")) {
-            try {
-                Long userId = Long.parseLong(authorizationHeader.substring("Bearer dummy-jwt-token-for-".length()));
-                Optional<User> userOptional = userRepository.findById(userId);
-                return userOptional.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
-            } catch (NumberFormatException e) {
-                return ResponseEntity.badRequest().build();
-            }
+    @GetMapping("/id/{id}")
+    public ResponseEntity<UserSummary> getUserById(@PathVariable Long id) {
+        return userLookupCache.findById(id, userRepository::findById)
+                .map(user -> ResponseEntity.ok(new UserSummary(user.getId(), user.getName(), user.getEmail())))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Resolves many users at once, e.g. every counterparty on a page of transaction history. Cached users are
+    // answered from memory and the rest are fetched with one IN query per list. Unknown ids and emails are left out.
+    @PostMapping("/batch")
+    public ResponseEntity<Map<Long, UserSummary>> getUsersBatch(@RequestBody UserBatchRequest request) {
+        List<Long> ids = request.getIds() == null ? List.of() : request.getIds().stream().filter(Objects::nonNull).distinct().toList();
+        List<String> emails = request.getEmails() == null ? List.of() : request.getEmails().stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.size() + emails.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<Long, User> users = new LinkedHashMap<>();
+        if (!ids.isEmpty()) {
+            users.putAll(userLookupCache.findAllById(ids, userRepository::findAllById));
+        }
+        if (!emails.isEmpty()) {
+            users.putAll(userLookupCache.findAllByEmail(emails, userRepository::findByEmailIn));
+        }
+        Map<Long, UserSummary> summaries = new LinkedHashMap<>();
+        users.forEach((id, user) -> summaries.put(id, new UserSummary(user.getId(), user.getName(), user.getEmail())));
+        return ResponseEntity.ok(summaries);
+    }
+
+    // Recipient autocomplete: users whose email, name or a word of their name starts with q.
+    // Served from RecipientSearchIndex, never from the users table. Emails come back masked, queries shorter
+    // than MIN_SEARCH_QUERY_LENGTH are refused and each caller is rate-limited, so it can't list the users.
+    @GetMapping("/search")
+    public ResponseEntity<List<RecipientSuggestion>> searchUsers(@AuthenticationPrincipal TokenClaims claims,
+                                                                 @RequestParam String q,
+                                                                 @RequestParam(defaultValue = "" + DEFAULT_SEARCH_LIMIT) int limit) {
+        if (RecipientSearchIndex.normalize(q).length() < MIN_SEARCH_QUERY_LENGTH) {
+            return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        if (!searchRateLimiter.tryAcquire(claims.userId())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "60").build();
+        }
+        List<RecipientSuggestion> suggestions = recipientSearchIndex.search(q, Math.min(limit, MAX_SEARCH_LIMIT)).stream()
+                .map(RecipientSuggestion::of)
+                .toList();
+        return ResponseEntity.ok(suggestions);
+    }
+
+    @GetMapping("/lookup-cache/stats")
+    public ResponseEntity<Map<String, Object>> getLookupCacheStats() {
+        return ResponseEntity.ok(userLookupCache.stats());
+    }
+
+    // Answered from the verified token's claims (see JwtAuthenticationFilter), without touching the database.
+    @GetMapping("/me")
+    public ResponseEntity<UserSummary> getAuthenticatedUser(@AuthenticationPrincipal TokenClaims claims) {
+        return ResponseEntity.ok(new UserSummary(claims.userId(), claims.name(), claims.email()));
     }
-}
\ No newline at end of file
+}
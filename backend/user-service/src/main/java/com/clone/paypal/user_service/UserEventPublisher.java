@@ -0,0 +1,21 @@
+package com.clone.paypal.user_service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+// Announces user changes on user_events, keyed by email, so other services can drop cached lookups.
+@Component
+@ConditionalOnProperty(name = "user.events.enabled", havingValue = "true")
+public class UserEventPublisher {
+    public static final String TOPIC = "user_events";
+    public static final String REGISTERED = "REGISTERED";
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    public void publish(String email, String type) {
+        kafkaTemplate.send(TOPIC, email, type);
+    }
+}
@@ -0,0 +1,153 @@
+package com.clone.paypal.user_service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// User lookups by email and by id, including "no such user". Misses expire sooner than hits. Concurrent
+// lookups of the same uncached key share one query, so a burst of payments to one recipient costs one
+// SELECT. Anything that writes a user must call invalidate afterwards.
+@Component
+public class UserLookupCache {
+
+    private final Cache<String, Lookup> byEmail;
+    private final Cache<Long, Lookup> byId;
+
+    public UserLookupCache(@Value("${user.lookup-cache.max-size:100000}") long maxSize,
+                           @Value("${user.lookup-cache.ttl-seconds:600}") long ttlSeconds,
+                           @Value("${user.lookup-cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.byEmail = newCache(maxSize, ttlSeconds, negativeTtlSeconds);
+        this.byId = newCache(maxSize, ttlSeconds, negativeTtlSeconds);
+    }
+
+    public Optional<User> findByEmail(String email, Function<String, Optional<User>> loader) {
+        Lookup lookup = byEmail.get(emailKey(email), key -> new Lookup(loader.apply(email).orElse(null)));
+        if (lookup.isFound()) {
+            byId.put(lookup.user().getId(), lookup);
+        }
+        return Optional.ofNullable(lookup.user());
+    }
+
+    public Optional<User> findById(Long id, Function<Long, Optional<User>> loader) {
+        Lookup lookup = byId.get(id, key -> new Lookup(loader.apply(key).orElse(null)));
+        if (lookup.isFound()) {
+            byEmail.put(emailKey(lookup.user().getEmail()), lookup);
+        }
+        return Optional.ofNullable(lookup.user());
+    }
+
+    // Users for the given ids; ids without a user are left out. All uncached ids are loaded with one loader call.
+    public Map<Long, User> findAllById(Collection<Long> ids, Function<Set<Long>, List<User>> loader) {
+        Map<Long, Lookup> lookups = byId.getAll(ids, missing -> {
+            Map<Long, Lookup> loaded = new HashMap<>();
+            for (User user : loader.apply(new HashSet<>(missing))) {
+                loaded.put(user.getId(), new Lookup(user));
+            }
+            missing.forEach(id -> loaded.putIfAbsent(id, Lookup.NOT_FOUND));
+            return loaded;
+        });
+        return found(lookups.values());
+    }
+
+    // Same for emails. The result is keyed by user id.
+    public Map<Long, User> findAllByEmail(Collection<String> emails, Function<Set<String>, List<User>> loader) {
+        List<String> keys = emails.stream().map(UserLookupCache::emailKey).toList();
+        Map<String, Lookup> lookups = byEmail.getAll(keys, missing -> {
+            Map<String, Lookup> loaded = new HashMap<>();
+            for (User user : loader.apply(new HashSet<>(missing))) {
+                loaded.put(emailKey(user.getEmail()), new Lookup(user));
+            }
+            missing.forEach(email -> loaded.putIfAbsent(email, Lookup.NOT_FOUND));
+            return loaded;
+        });
+        return found(lookups.values());
+    }
+
+    // Drops both keys, including a cached "not found" from before the user existed.
+    public void invalidate(User user) {
+        if (user.getEmail() != null) {
+            byEmail.invalidate(emailKey(user.getEmail()));
+        }
+        if (user.getId() != null) {
+            byId.invalidate(user.getId());
+        }
+    }
+
+    private Map<Long, User> found(Collection<Lookup> lookups) {
+        Map<Long, User> users = new LinkedHashMap<>();
+        for (Lookup lookup : lookups) {
+            if (lookup.isFound()) {
+                users.put(lookup.user().getId(), lookup.user());
+                byId.put(lookup.user().getId(), lookup);
+                byEmail.put(emailKey(lookup.user().getEmail()), lookup);
+            }
+        }
+        return users;
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of("byEmail", stats(byEmail), "byId", stats(byId));
+    }
+
+    // The users table uses MySQL's default case-insensitive collation, so emails differing only in case are one user.
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static <K> Cache<K, Lookup> newCache(long maxSize, long ttlSeconds, long negativeTtlSeconds) {
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        long negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<K, Lookup>() {
+                    @Override
+                    public long expireAfterCreate(K key, Lookup lookup, long currentTime) {
+                        return lookup.isFound() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, Lookup lookup, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, lookup, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, Lookup lookup, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    private static Map<String, Object> stats(Cache<?, Lookup> cache) {
+        CacheStats stats = cache.stats();
+        return Map.of(
+                "size", cache.estimatedSize(),
+                "hits", stats.hitCount(),
+                "misses", stats.missCount(),
+                "hitRate", stats.hitRate(),
+                "evictions", stats.evictionCount());
+    }
+
+    record Lookup(User user) {
+        static final Lookup NOT_FOUND = new Lookup(null);
+
+        boolean isFound() {
+            return user != null;
+        }
+    }
+}
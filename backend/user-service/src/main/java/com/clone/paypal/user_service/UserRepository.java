@@ -1,7 +1,26 @@
 package com.clone.paypal.user_service;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    List<User> findByEmailIn(Collection<String> emails);
+
+    // Keyset-paged scan for RecipientSearchIndex; skips the password column and the persistence context.
+    @Query("select new com.clone.paypal.user_service.UserSummary(u.id, u.name, u.email) from User u where u.id > :afterId order by u.id")
+    List<UserSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Only replaces the hash it was computed from, so a concurrent password change always wins.
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
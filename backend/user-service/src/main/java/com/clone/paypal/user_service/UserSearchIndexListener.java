@@ -0,0 +1,33 @@
+package com.clone.paypal.user_service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+// Adds users registered on other user-service instances to this instance's RecipientSearchIndex.
+// user_events only carries the email (as the key), so the user is read back from the database.
+@Component
+@ConditionalOnProperty(name = "user.search.sync.enabled", havingValue = "true")
+public class UserSearchIndexListener {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecipientSearchIndex recipientSearchIndex;
+
+    // A random group id per instance, so every instance sees every event.
+    @KafkaListener(topics = UserEventPublisher.TOPIC, groupId = "user-search-index-#{T(java.util.UUID).randomUUID().toString()}",
+            properties = {
+                    "key.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                    "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer"
+            })
+    public void onUserEvent(ConsumerRecord<String, String> record) {
+        if (record.key() != null) {
+            userRepository.findByEmail(record.key()).ifPresent(user ->
+                    recipientSearchIndex.add(new UserSummary(user.getId(), user.getName(), user.getEmail())));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.clone.paypal.user_service;
+
+// The public view of a user; never includes the password hash.
+public class UserSummary {
+    private Long id;
+    private String name;
+    private String email;
+
+    public UserSummary() {
+    }
+
+    public UserSummary(Long id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
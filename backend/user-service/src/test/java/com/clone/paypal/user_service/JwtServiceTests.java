@@ -0,0 +1,79 @@
+package com.clone.paypal.user_service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTests {
+
+	private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+	private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+	private final JwtService jwtService = service(SECRET, NOW, 100);
+
+	@Test
+	void verifiesItsOwnTokens() {
+		String token = jwtService.issue(user(42L, "Alice", "alice@example.com"));
+
+		TokenClaims claims = jwtService.verify(token).orElseThrow();
+
+		assertThat(claims.userId()).isEqualTo(42L);
+		assertThat(claims.name()).isEqualTo("Alice");
+		assertThat(claims.email()).isEqualTo("alice@example.com");
+		assertThat(claims.expiresAt()).isEqualTo(NOW.getEpochSecond() + 3600);
+		// Served from the cache the second time.
+		assertThat(jwtService.verify(token)).contains(claims);
+	}
+
+	@Test
+	void rejectsTamperedTokens() {
+		String token = jwtService.issue(user(42L, "Alice", "alice@example.com"));
+		String[] parts = token.split("\\.");
+		String otherUser = Base64.getUrlEncoder().withoutPadding().encodeToString(
+				("{\"sub\":\"1\",\"name\":\"Alice\",\"email\":\"alice@example.com\",\"exp\":" + (NOW.getEpochSecond() + 3600) + "}")
+						.getBytes(StandardCharsets.UTF_8));
+		String unsigned = Base64.getUrlEncoder().withoutPadding().encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+
+		assertThat(jwtService.verify(parts[0] + "." + otherUser + "." + parts[2])).isEmpty();
+		assertThat(jwtService.verify(unsigned + "." + parts[1] + ".")).isEmpty();
+		assertThat(jwtService.verify("dummy-jwt-token-for-42")).isEmpty();
+		assertThat(service(Base64.getEncoder().encodeToString(new byte[] {
+				1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16,
+				17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32}), NOW, 100).verify(token)).isEmpty();
+	}
+
+	@Test
+	void rejectsExpiredTokens() {
+		String token = jwtService.issue(user(42L, "Alice", "alice@example.com"));
+
+		assertThat(service(SECRET, NOW.plus(Duration.ofMinutes(59)), 0).verify(token)).isPresent();
+		assertThat(service(SECRET, NOW.plus(Duration.ofMinutes(60)), 0).verify(token)).isEmpty();
+	}
+
+	@Test
+	void rejectsShortSecrets() {
+		String shortSecret = Base64.getEncoder().encodeToString(new byte[16]);
+
+		assertThatThrownBy(() -> service(shortSecret, NOW, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static JwtService service(String secret, Instant now, long cacheSize) {
+		return new JwtService(secret, Duration.ofMinutes(60), cacheSize, Clock.fixed(now, ZoneOffset.UTC));
+	}
+
+	private static User user(Long id, String name, String email) {
+		User user = new User();
+		user.setId(id);
+		user.setName(name);
+		user.setEmail(email);
+		return user;
+	}
+}
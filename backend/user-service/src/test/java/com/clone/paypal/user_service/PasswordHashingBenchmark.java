@@ -0,0 +1,44 @@
+package com.clone.paypal.user_service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// Password checks per second on a single thread at each BCrypt strength, i.e. logins/sec per core.
+// Multiply by user.password.hash-threads for the ceiling of the whole service.
+// Run with: mvn test-compile exec:java -Dexec.mainClass=com.clone.paypal.user_service.PasswordHashingBenchmark -Dexec.classpathScope=test
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(1)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+	@Param({"8", "10", "12"})
+	public int strength;
+
+	private BCryptPasswordEncoder encoder;
+	private String hash;
+
+	@Setup
+	public void setUp() {
+		encoder = new BCryptPasswordEncoder(strength);
+		hash = encoder.encode("correct horse battery staple");
+	}
+
+	@Benchmark
+	public boolean login() {
+		return encoder.matches("correct horse battery staple", hash);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(PasswordHashingBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,60 @@
+package com.clone.paypal.user_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTests {
+
+	@Test
+	void rejectsWorkOnceTheQueueIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordHashingService service = service(1, 1, new BCryptPasswordEncoder(4) {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.encode(rawPassword);
+			}
+		});
+
+		CompletableFuture<String> running = service.encode("a");
+		// Wait until the first task has left the queue and occupies the only thread.
+		while (service.getQueueDepth() > 0) {
+			Thread.sleep(1);
+		}
+		CompletableFuture<String> queued = service.encode("b");
+
+		assertThatThrownBy(() -> service.encode("c")).isInstanceOf(RejectedExecutionException.class);
+		release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS)).startsWith("$2a$04$");
+		assertThat(queued.get(5, TimeUnit.SECONDS)).startsWith("$2a$04$");
+	}
+
+	@Test
+	void flagsHashesMadeWithALowerStrength() throws Exception {
+		String weak = new BCryptPasswordEncoder(4).encode("secret");
+		PasswordHashingService service = service(1, 10, new BCryptPasswordEncoder(5));
+
+		assertThat(service.needsRehash(weak)).isTrue();
+		assertThat(service.matches("secret", weak).get(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(service.needsRehash(service.encode("secret").get(5, TimeUnit.SECONDS))).isFalse();
+	}
+
+	private static PasswordHashingService service(int threads, int queueCapacity, BCryptPasswordEncoder encoder) {
+		PasswordHashingService service = new PasswordHashingService(threads, queueCapacity);
+		ReflectionTestUtils.setField(service, "passwordEncoder", encoder);
+		return service;
+	}
+}
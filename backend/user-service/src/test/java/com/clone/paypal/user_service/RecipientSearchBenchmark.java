@@ -0,0 +1,49 @@
+package com.clone.paypal.user_service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Autocomplete latency against an index of a million synthetic users, for short and longer prefixes.
+// Run with: mvn test-compile exec:java -Dexec.mainClass=com.clone.paypal.user_service.RecipientSearchBenchmark -Dexec.classpathScope=test
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class RecipientSearchBenchmark {
+	private static final int USERS = 1_000_000;
+	private static final String[] FIRST = {"alice", "bob", "carol", "dave", "erin", "frank", "grace", "heidi", "ivan", "judy"};
+	private static final String[] LAST = {"smith", "jones", "taylor", "brown", "williams", "wilson", "johnson", "davies"};
+
+	@Param({"a", "al", "alice.sm", "alice.smith12"})
+	public String query;
+
+	private RecipientSearchIndex index;
+
+	@Setup
+	public void setUp() {
+		index = new RecipientSearchIndex();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (long id = 1; id <= USERS; id++) {
+			String first = FIRST[random.nextInt(FIRST.length)];
+			String last = LAST[random.nextInt(LAST.length)];
+			index.add(new UserSummary(id, first + " " + last, first + "." + last + id + "@example.com"));
+		}
+	}
+
+	@Benchmark
+	public Object search() {
+		return index.search(query, UserController.DEFAULT_SEARCH_LIMIT);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(RecipientSearchBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
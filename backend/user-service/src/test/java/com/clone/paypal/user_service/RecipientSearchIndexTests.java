@@ -0,0 +1,48 @@
+package com.clone.paypal.user_service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipientSearchIndexTests {
+
+	private final RecipientSearchIndex index = new RecipientSearchIndex();
+
+	@Test
+	void findsUsersByEmailAndNamePrefixes() {
+		index.add(new UserSummary(1L, "Alice Smith", "alice@example.com"));
+		index.add(new UserSummary(2L, "Bob Alison", "bob@example.com"));
+		index.add(new UserSummary(3L, "Carol", "al@example.com"));
+
+		// Email matches rank above name matches, shorter emails first.
+		assertThat(index.search("al", 10)).extracting(UserSummary::getId).containsExactly(3L, 1L, 2L);
+		assertThat(index.search("  SMI ", 10)).extracting(UserSummary::getId).containsExactly(1L);
+		assertThat(index.search("alice smith", 10)).extracting(UserSummary::getId).containsExactly(1L);
+		assertThat(index.search("zed", 10)).isEmpty();
+		assertThat(index.search(" ", 10)).isEmpty();
+	}
+
+	@Test
+	void ranksAnExactEmailFirstAndCapsResults() {
+		for (long id = 1; id <= 20; id++) {
+			index.add(new UserSummary(id, "Sam " + id, "sam" + id + "@example.com"));
+		}
+		index.add(new UserSummary(21L, "Samantha", "sam@x.io"));
+
+		assertThat(index.search("sam@x.io", 5)).extracting(UserSummary::getId).containsExactly(21L);
+		assertThat(index.search("sam", 5)).hasSize(5).first().extracting(UserSummary::getId).isEqualTo(21L);
+	}
+
+	@Test
+	void ignoresAccentsAndReindexesChangedUsers() {
+		index.add(new UserSummary(1L, "José Álvarez", "jose@example.com"));
+		assertThat(index.search("alv", 10)).extracting(UserSummary::getId).containsExactly(1L);
+
+		index.add(new UserSummary(1L, "José Díaz", "jose.diaz@example.com"));
+
+		assertThat(index.search("alv", 10)).isEmpty();
+		assertThat(index.search("diaz", 10)).extracting(UserSummary::getEmail).containsExactly("jose.diaz@example.com");
+		assertThat(index.search("jose@", 10)).isEmpty();
+		assertThat(index.size()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,152 @@
+package com.clone.paypal.user_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = UserController.class, properties = "user.search.requests-per-minute=" + UserControllerTests.SEARCHES_PER_MINUTE)
+@Import({SecurityConfig.class, JwtService.class, UserLookupCache.class, SearchRateLimiter.class})
+class UserControllerTests {
+
+	static final int SEARCHES_PER_MINUTE = 5;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@MockBean
+	private UserRepository userRepository;
+
+	@MockBean
+	private PasswordHashingService passwordHashingService;
+
+	@MockBean
+	private RecipientSearchIndex recipientSearchIndex;
+
+	@Test
+	void lookupsByIdNeedAToken() throws Exception {
+		mockMvc.perform(post("/api/users/batch").contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[1]}"))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/users/id/1")).andExpect(status().isUnauthorized());
+		mockMvc.perform(post("/api/users/batch").contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[1]}")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token"))
+				.andExpect(status().isUnauthorized());
+		verify(userRepository, never()).findAllById(any());
+
+		// Recipient lookup by email stays open to transaction-service.
+		when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+		mockMvc.perform(get("/api/users/email/nobody@example.com")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void batchResolvesIdsAndEmailsAndLeavesUnknownOnesOut() throws Exception {
+		when(userRepository.findAllById(any())).thenReturn(List.of(user(1L, "Alice", "alice@example.com")));
+		when(userRepository.findByEmailIn(anyCollection())).thenReturn(List.of(user(2L, "Bob", "bob@example.com")));
+
+		mockMvc.perform(post("/api/users/batch").header(HttpHeaders.AUTHORIZATION, bearer())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\":[1,99,1],\"emails\":[\"bob@example.com\",\"ghost@example.com\"]}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$['1'].name").value("Alice"))
+				.andExpect(jsonPath("$['2'].email").value("bob@example.com"))
+				.andExpect(jsonPath("$['2'].password").doesNotExist());
+	}
+
+	@Test
+	void batchIsCappedAtMaxBatchSize() throws Exception {
+		when(userRepository.findAllById(any())).thenReturn(List.of());
+
+		mockMvc.perform(post("/api/users/batch").header(HttpHeaders.AUTHORIZATION, bearer())
+						.contentType(MediaType.APPLICATION_JSON).content(idsJson(UserController.MAX_BATCH_SIZE)))
+				.andExpect(status().isOk());
+		mockMvc.perform(post("/api/users/batch").header(HttpHeaders.AUTHORIZATION, bearer())
+						.contentType(MediaType.APPLICATION_JSON).content(idsJson(UserController.MAX_BATCH_SIZE + 1)))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void searchShowsNamesWithMaskedEmails() throws Exception {
+		when(recipientSearchIndex.search(eq("ali"), anyInt())).thenReturn(List.of(new UserSummary(1L, "Alice", "alice@example.com")));
+
+		mockMvc.perform(get("/api/users/search").param("q", "ali").param("limit", "1000")
+						.header(HttpHeaders.AUTHORIZATION, bearer(20L)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].id").value(1))
+				.andExpect(jsonPath("$[0].name").value("Alice"))
+				.andExpect(jsonPath("$[0].maskedEmail").value("a***@example.com"))
+				.andExpect(jsonPath("$[0].email").doesNotExist());
+		verify(recipientSearchIndex).search("ali", UserController.MAX_SEARCH_LIMIT);
+	}
+
+	@Test
+	void searchNeedsATokenAndALongEnoughQuery() throws Exception {
+		mockMvc.perform(get("/api/users/search").param("q", "alice")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/api/users/search").param("q", " a ").header(HttpHeaders.AUTHORIZATION, bearer(21L)))
+				.andExpect(status().isBadRequest());
+		verify(recipientSearchIndex, never()).search(anyString(), anyInt());
+	}
+
+	@Test
+	void searchIsRateLimitedPerCaller() throws Exception {
+		when(recipientSearchIndex.search(anyString(), anyInt())).thenReturn(List.of());
+		for (int i = 0; i < SEARCHES_PER_MINUTE; i++) {
+			mockMvc.perform(get("/api/users/search").param("q", "bob").header(HttpHeaders.AUTHORIZATION, bearer(22L)))
+					.andExpect(status().isOk());
+		}
+
+		mockMvc.perform(get("/api/users/search").param("q", "bob").header(HttpHeaders.AUTHORIZATION, bearer(22L)))
+				.andExpect(status().isTooManyRequests());
+		// Other callers have their own allowance.
+		mockMvc.perform(get("/api/users/search").param("q", "bob").header(HttpHeaders.AUTHORIZATION, bearer(23L)))
+				.andExpect(status().isOk());
+	}
+
+	private String bearer() {
+		return bearer(7L);
+	}
+
+	// Each search test calls as its own user: SearchRateLimiter is shared across the tests.
+	private String bearer(Long userId) {
+		return "Bearer " + jwtService.issue(user(userId, "Carol", "carol" + userId + "@example.com"));
+	}
+
+	// Ids no other test uses: UserLookupCache is shared across the tests and remembers misses.
+	private static String idsJson(int count) {
+		return LongStream.range(1000, 1000 + count).mapToObj(String::valueOf).collect(Collectors.joining(",", "{\"ids\":[", "]}"));
+	}
+
+	private static User user(Long id, String name, String email) {
+		User user = new User();
+		user.setId(id);
+		user.setName(name);
+		user.setEmail(email);
+		user.setPassword("hash");
+		return user;
+	}
+}
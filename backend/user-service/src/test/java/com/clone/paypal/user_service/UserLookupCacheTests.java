@@ -0,0 +1,79 @@
+package com.clone.paypal.user_service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserLookupCacheTests {
+
+	private final UserLookupCache cache = new UserLookupCache(100, 600, 30);
+	private final AtomicInteger queries = new AtomicInteger();
+
+	@Test
+	void servesRepeatLookupsFromMemory() {
+		User alice = user(1L, "alice@example.com");
+
+		assertThat(cache.findByEmail("alice@example.com", email -> load(alice))).contains(alice);
+		assertThat(cache.findByEmail("Alice@Example.com", email -> load(alice))).contains(alice);
+		// Found by email, so the id is already known too.
+		assertThat(cache.findById(1L, id -> load(alice))).contains(alice);
+
+		assertThat(queries).hasValue(1);
+		@SuppressWarnings("unchecked")
+		Map<String, Object> byEmail = (Map<String, Object>) cache.stats().get("byEmail");
+		assertThat(byEmail).containsEntry("hits", 1L).containsEntry("misses", 1L);
+	}
+
+	@Test
+	void cachesMissesUntilTheUserRegisters() {
+		User bob = user(2L, "bob@example.com");
+
+		assertThat(cache.findByEmail("bob@example.com", email -> load(null))).isEmpty();
+		assertThat(cache.findByEmail("bob@example.com", email -> load(bob))).isEmpty();
+		assertThat(queries).hasValue(1);
+
+		cache.invalidate(bob);
+
+		assertThat(cache.findByEmail("bob@example.com", email -> load(bob))).contains(bob);
+		assertThat(queries).hasValue(2);
+	}
+
+	@Test
+	void resolvesABatchWithOneQueryForTheMisses() {
+		User alice = user(1L, "alice@example.com");
+		User bob = user(2L, "bob@example.com");
+		cache.findById(1L, id -> load(alice));
+		List<Set<Long>> queried = new ArrayList<>();
+
+		Map<Long, User> users = cache.findAllById(List.of(1L, 2L, 3L), missing -> {
+			queried.add(missing);
+			return List.of(bob);
+		});
+
+		assertThat(users).containsOnlyKeys(1L, 2L);
+		assertThat(queried).containsExactly(Set.of(2L, 3L));
+		// Both the found user and the unknown id are cached now, and so is the found user's email.
+		assertThat(cache.findAllById(List.of(2L, 3L), missing -> List.of(user(3L, "carol@example.com")))).containsOnlyKeys(2L);
+		assertThat(cache.findAllByEmail(List.of("BOB@example.com"), missing -> List.of())).containsOnlyKeys(2L);
+	}
+
+	private Optional<User> load(User user) {
+		queries.incrementAndGet();
+		return Optional.ofNullable(user);
+	}
+
+	private static User user(Long id, String email) {
+		User user = new User();
+		user.setId(id);
+		user.setEmail(email);
+		user.setName(email.substring(0, email.indexOf('@')));
+		return user;
+	}
+}
@@ -0,0 +1,27 @@
+package com.clone.paypal.wallet_service;
+
+import java.util.List;
+
+public class BatchCreditResponse {
+    private int credited;
+    private int failed;
+    private List<BatchCreditResult> results; // Same order as the request
+
+    public BatchCreditResponse(List<BatchCreditResult> results) {
+        this.results = results;
+        this.credited = (int) results.stream().filter(r -> BatchCreditResult.CREDITED.equals(r.getStatus())).count();
+        this.failed = results.size() - credited;
+    }
+
+    public int getCredited() {
+        return credited;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BatchCreditResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,46 @@
+package com.clone.paypal.wallet_service;
+
+import java.math.BigDecimal;
+
+public class BatchCreditResult {
+    public static final String CREDITED = "CREDITED";
+    public static final String WALLET_NOT_FOUND = "WALLET_NOT_FOUND";
+    public static final String INVALID_AMOUNT = "INVALID_AMOUNT";
+    public static final String FAILED = "FAILED";
+
+    private Long userId;
+    private String status;
+    private BigDecimal balance; // New balance after this credit; null unless credited in row mode
+
+    public BatchCreditResult() {}
+
+    public BatchCreditResult(Long userId, String status, BigDecimal balance) {
+        this.userId = userId;
+        this.status = status;
+        this.balance = balance;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,8 @@
+package com.clone.paypal.wallet_service;
+
+// A transfer with this id has already been applied.
+public class DuplicateTransferException extends RuntimeException {
+    public DuplicateTransferException(String transferId) {
+        super("Transfer " + transferId + " has already been applied");
+    }
+}
@@ -14,12 +14,15 @@ public class Wallet {
     @Column(nullable = false, unique = true)
     private Long userId; // Links to a user in the User Service
 
-    @Column(nullable = false)
+    // Explicit precision/scale: Hibernate needs them to render "balance + :amount" in the conditional updates.
+    @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal balance;
 
     @Column(nullable = false)
     private String currency;
 
+    private Integer stripes; // Number of stripe rows credits are spread across; null when striping is off
+
     public Long getId() {
         return id;
     }
@@ -51,4 +54,12 @@ public class Wallet {
     public void setCurrency(String currency) {
         this.currency = currency;
     }
+
+    public Integer getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(Integer stripes) {
+        this.stripes = stripes;
+    }
 }
@@ -0,0 +1,31 @@
+package com.clone.paypal.wallet_service;
+
+import java.math.BigDecimal;
+
+public class WalletBalanceResponse {
+    private Long userId;
+    private BigDecimal balance;
+
+    public WalletBalanceResponse() {}
+
+    public WalletBalanceResponse(Long userId, BigDecimal balance) {
+        this.userId = userId;
+        this.balance = balance;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,148 @@
+package com.clone.paypal.wallet_service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Payroll-style payouts: credits are applied in chunks, one transaction and one bulk load per chunk,
+// and written back as JDBC batches instead of one round trip per recipient.
+@Service
+public class WalletBatchService {
+    private static final Logger logger = LoggerFactory.getLogger(WalletBatchService.class);
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletStripeRepository walletStripeRepository;
+
+    @Autowired
+    private WalletLedgerService walletLedgerService;
+
+    @Autowired
+    private WalletCache walletCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${wallet.batch.chunk-size:500}")
+    private int chunkSize;
+
+    // One result per request, in request order. A failing chunk only fails its own items.
+    public List<BatchCreditResult> creditAll(List<WalletTransactionRequest> requests) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<BatchCreditResult> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            List<WalletTransactionRequest> chunk = requests.subList(from, Math.min(from + chunkSize, requests.size()));
+            try {
+                results.addAll(transactionTemplate.execute(status ->
+                        walletLedgerService.isJournalMode() ? appendChunk(chunk) : applyChunk(chunk)));
+            } catch (Exception e) {
+                logger.warn("Batch credit chunk of {} items failed", chunk.size(), e);
+                chunk.forEach(r -> results.add(new BatchCreditResult(r.getUserId(), BatchCreditResult.FAILED, null)));
+            }
+        }
+        return results;
+    }
+
+    private List<BatchCreditResult> applyChunk(List<WalletTransactionRequest> chunk) {
+        Map<Long, Wallet> wallets = new HashMap<>();
+        Map<Long, BigDecimal> stripeTotals = new HashMap<>();
+        Set<Long> userIds = validUserIds(chunk);
+        if (!userIds.isEmpty()) {
+            for (Wallet wallet : walletRepository.findAllByUserIdInForUpdate(userIds)) {
+                wallets.put(wallet.getUserId(), wallet);
+                if (wallet.getStripes() != null && wallet.getStripes() > 1) {
+                    stripeTotals.put(wallet.getUserId(), walletStripeRepository.sumBalances(wallet.getUserId()));
+                }
+            }
+        }
+
+        List<BatchCreditResult> results = new ArrayList<>(chunk.size());
+        for (WalletTransactionRequest request : chunk) {
+            Wallet wallet = wallets.get(request.getUserId());
+            if (!isPositive(request.getAmount())) {
+                results.add(new BatchCreditResult(request.getUserId(), BatchCreditResult.INVALID_AMOUNT, null));
+            } else if (wallet == null) {
+                results.add(new BatchCreditResult(request.getUserId(), BatchCreditResult.WALLET_NOT_FOUND, null));
+            } else {
+                wallet.setBalance(wallet.getBalance().add(request.getAmount().toBigDecimal()));
+                BigDecimal balance = wallet.getBalance().add(stripeTotals.getOrDefault(wallet.getUserId(), BigDecimal.ZERO));
+                results.add(new BatchCreditResult(request.getUserId(), BatchCreditResult.CREDITED, balance));
+            }
+        }
+        for (Wallet wallet : wallets.values()) {
+            if (stripeTotals.containsKey(wallet.getUserId())) {
+                walletCache.evict(wallet.getUserId());
+            } else {
+                walletCache.writeThrough(wallet.getUserId(), wallet.getBalance());
+            }
+        }
+        // Dirty wallets go out as JDBC-batched UPDATEs (hibernate.jdbc.batch_size), then the chunk is dropped
+        // from the persistence context so memory stays bounded however large the payout is.
+        entityManager.flush();
+        entityManager.clear();
+        return results;
+    }
+
+    // Journal mode: one JDBC batch of inserts per chunk, under shared locks like single credits. MySQL only sends
+    // it as a single multi-row insert with rewriteBatchedStatements=true on the datasource url. Hibernate can't
+    // batch IDENTITY inserts, so this goes through JdbcTemplate directly. Balances are not folded per item.
+    private List<BatchCreditResult> appendChunk(List<WalletTransactionRequest> chunk) {
+        Set<Long> userIds = validUserIds(chunk);
+        Set<Long> existing = userIds.isEmpty()
+                ? Set.of()
+                : walletRepository.findAllByUserIdInForShare(userIds).stream().map(Wallet::getUserId).collect(Collectors.toSet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> rows = new ArrayList<>(chunk.size());
+        List<BatchCreditResult> results = new ArrayList<>(chunk.size());
+        for (WalletTransactionRequest request : chunk) {
+            if (!isPositive(request.getAmount())) {
+                results.add(new BatchCreditResult(request.getUserId(), BatchCreditResult.INVALID_AMOUNT, null));
+            } else if (!existing.contains(request.getUserId())) {
+                results.add(new BatchCreditResult(request.getUserId(), BatchCreditResult.WALLET_NOT_FOUND, null));
+            } else {
+                rows.add(new Object[]{request.getUserId(), request.getAmount().toBigDecimal(), now});
+                walletCache.evict(request.getUserId());
+                results.add(new BatchCreditResult(request.getUserId(), BatchCreditResult.CREDITED, null));
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into wallet_journal (user_id, amount, created_at) values (?, ?, ?)", rows);
+        }
+        return results;
+    }
+
+    private static Set<Long> validUserIds(List<WalletTransactionRequest> chunk) {
+        Set<Long> userIds = new HashSet<>();
+        for (WalletTransactionRequest request : chunk) {
+            if (request.getUserId() != null && isPositive(request.getAmount())) {
+                userIds.add(request.getUserId());
+            }
+        }
+        return userIds;
+    }
+
+    private static boolean isPositive(Money amount) {
+        return amount != null && amount.isPositive();
+    }
+}
@@ -0,0 +1,126 @@
+package com.clone.paypal.wallet_service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Bounded in-process cache for GET /api/wallets/user/{userId}, keyed by userId.
+//
+// Writes reach the cache after commit, and two commits can reach it in either order. To keep an older
+// balance from overwriting a newer one, each write takes a sequence number while it still holds the
+// wallet's row lock, so sequence order matches commit order, and the cache keeps the highest one.
+// A load records the sequence seen before its DB read, so a write that committed during the read
+// still wins.
+@Component
+public class WalletCache {
+
+    private final Cache<Long, Entry> cache;
+    private final AtomicLong writeSequence = new AtomicLong();
+
+    @Autowired(required = false)
+    private WalletCacheInvalidationPublisher invalidationPublisher;
+
+    public WalletCache(@Value("${wallet.cache.max-size:100000}") long maxSize,
+                       @Value("${wallet.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Wallet> get(Long userId, Function<Long, Optional<Wallet>> loader) {
+        Entry entry = cache.get(userId, id -> {
+            long sequence = writeSequence.get();
+            return loader.apply(id).map(wallet -> new Entry(wallet, sequence)).orElse(null);
+        });
+        return entry == null ? Optional.empty() : Optional.of(entry.wallet());
+    }
+
+    // Caches the whole wallet once the current transaction commits. Call while holding the wallet's row lock.
+    public void writeThrough(Wallet wallet) {
+        long sequence = writeSequence.incrementAndGet();
+        afterCommit(() -> {
+            cache.asMap().compute(wallet.getUserId(),
+                    (id, current) -> current == null || current.sequence() <= sequence ? new Entry(wallet, sequence) : current);
+            publishInvalidation(wallet.getUserId());
+        });
+    }
+
+    // Updates the cached balance, if the wallet is cached, once the current transaction commits.
+    // Call while holding the wallet's row lock.
+    public void writeThrough(Long userId, BigDecimal balance) {
+        long sequence = writeSequence.incrementAndGet();
+        afterCommit(() -> {
+            cache.asMap().computeIfPresent(userId,
+                    (id, current) -> current.sequence() <= sequence ? new Entry(withBalance(current.wallet(), balance), sequence) : current);
+            publishInvalidation(userId);
+        });
+    }
+
+    // For writes that don't hold the wallet's row lock (striped credits, journal mode), where the
+    // ordering above can't be guaranteed.
+    public void evict(Long userId) {
+        afterCommit(() -> {
+            cache.invalidate(userId);
+            publishInvalidation(userId);
+        });
+    }
+
+    // Called when another wallet-service instance wrote this wallet.
+    public void evictLocal(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        return Map.of(
+                "size", cache.estimatedSize(),
+                "hits", stats.hitCount(),
+                "misses", stats.missCount(),
+                "hitRate", stats.hitRate(),
+                "evictions", stats.evictionCount());
+    }
+
+    private void publishInvalidation(Long userId) {
+        if (invalidationPublisher != null) {
+            invalidationPublisher.publish(userId);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Wallet withBalance(Wallet wallet, BigDecimal balance) {
+        Wallet copy = new Wallet();
+        copy.setId(wallet.getId());
+        copy.setUserId(wallet.getUserId());
+        copy.setBalance(balance);
+        copy.setCurrency(wallet.getCurrency());
+        copy.setStripes(wallet.getStripes());
+        return copy;
+    }
+
+    private record Entry(Wallet wallet, long sequence) {}
+}
@@ -0,0 +1,27 @@
+package com.clone.paypal.wallet_service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "wallet.cache.invalidation.enabled", havingValue = "true")
+public class WalletCacheInvalidationListener {
+
+    @Autowired
+    private WalletCache walletCache;
+
+    @Autowired
+    private WalletCacheInvalidationPublisher walletCacheInvalidationPublisher;
+
+    // A random group id per instance, so every instance sees every invalidation.
+    @KafkaListener(topics = WalletCacheInvalidationPublisher.TOPIC,
+            groupId = "wallet-cache-#{T(java.util.UUID).randomUUID().toString()}")
+    public void onInvalidation(ConsumerRecord<String, String> record) {
+        if (!walletCacheInvalidationPublisher.getNodeId().equals(record.value())) {
+            walletCache.evictLocal(Long.valueOf(record.key()));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.clone.paypal.wallet_service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import java.util.UUID;
+
+// Tells the other wallet-service instances behind Eureka to drop their cached copy of a wallet.
+@Component
+@ConditionalOnProperty(name = "wallet.cache.invalidation.enabled", havingValue = "true")
+public class WalletCacheInvalidationPublisher {
+    public static final String TOPIC = "wallet_cache_invalidation";
+
+    // Identifies this instance so it can ignore its own invalidations.
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    public void publish(Long userId) {
+        kafkaTemplate.send(TOPIC, String.valueOf(userId), nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
@@ -1,58 +1,112 @@
 package com.clone.paypal.wallet_service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/wallets")
 public class WalletController {
 
     @Autowired
-    private WalletRepository walletRepository;
+    private WalletLedgerService walletLedgerService;
+
+    @Autowired
+    private WalletBatchService walletBatchService;
+
+    @Autowired
+    private WalletCache walletCache;
+
+    @Value("${wallet.batch.max-items:10000}")
+    private int maxBatchItems;
 
     // A simple endpoint to get a wallet by user ID
     @GetMapping("/user/{userId}")
     public ResponseEntity<Wallet> getWalletByUserId(@PathVariable Long userId) {
-        return walletRepository.findByUserId(userId)
+        return walletCache.get(userId, walletLedgerService::findWallet)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Current balance, or the balance as of a past instant (journal mode only).
+    @GetMapping("/user/{userId}/balance")
+    public ResponseEntity<WalletBalanceResponse> getBalance(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        if (at != null && !walletLedgerService.isJournalMode()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<BigDecimal> balance = at == null
+                ? walletLedgerService.balance(userId)
+                : walletLedgerService.balanceAt(userId, at);
+        return balance
+                .map(b -> ResponseEntity.ok(new WalletBalanceResponse(userId, b)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     // We'll also need a way to create wallets.
     // In a real system, the User Service would call this automatically after a user registers.
     // For now, we can add a manual endpoint for testing.
     @PostMapping
     public ResponseEntity<Wallet> createWallet(@RequestBody Wallet wallet) {
-        wallet.setBalance(BigDecimal.ZERO); // Wallets start with a zero balance
-        wallet.setCurrency("INR");
-        Wallet savedWallet = walletRepository.save(wallet);
-        return ResponseEntity.ok(savedWallet);
+        return ResponseEntity.ok(walletLedgerService.createWallet(wallet));
     }
     // Add these new methods to your existing WalletController
 
-        @PostMapping("/debit")
-    public ResponseEntity<Void> debit(@RequestBody WalletTransactionRequest request) {
-        Wallet wallet = walletRepository.findByUserId(request.getUserId()).orElse(null);
-        if (wallet == null || wallet.getBalance().compareTo(request.getAmount()) < 0) {
-            return ResponseEntity.badRequest().build(); // Wallet not found or insufficient funds
-        }
-        wallet.setBalance(wallet.getBalance().subtract(request.getAmount()));
-        walletRepository.save(wallet);
-        return ResponseEntity.ok().build();
+    @PostMapping("/debit")
+    public ResponseEntity<WalletBalanceResponse> debit(@RequestBody WalletTransactionRequest request) {
+        return walletLedgerService.debit(request.getUserId(), request.getAmount())
+                .map(balance -> ResponseEntity.ok(new WalletBalanceResponse(request.getUserId(), balance)))
+                .orElse(ResponseEntity.badRequest().build()); // Wallet not found or insufficient funds
     }
 
     @PostMapping("/credit")
-    public ResponseEntity<Void> credit(@RequestBody WalletTransactionRequest request) {
-        Wallet wallet = walletRepository.findByUserId(request.getUserId()).orElse(null);
-        if (wallet == null) {
-            return ResponseEntity.badRequest().build(); // Wallet not found
+    public ResponseEntity<WalletBalanceResponse> credit(@RequestBody WalletTransactionRequest request) {
+        return walletLedgerService.credit(request.getUserId(), request.getAmount())
+                .map(balance -> ResponseEntity.ok(new WalletBalanceResponse(request.getUserId(), balance)))
+                .orElse(ResponseEntity.badRequest().build()); // Wallet not found
+    }
+
+    // Bulk payouts: many credits in one call, with a per-item result.
+    @PostMapping("/credits:batch")
+    public ResponseEntity<BatchCreditResponse> creditBatch(@RequestBody List<WalletTransactionRequest> requests) {
+        if (requests.isEmpty() || requests.size() > maxBatchItems || requests.stream().anyMatch(Objects::isNull)) {
+            return ResponseEntity.badRequest().build();
         }
-        wallet.setBalance(wallet.getBalance().add(request.getAmount()));
-        walletRepository.save(wallet);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(new BatchCreditResponse(walletBatchService.creditAll(requests)));
     }
 
-}
+    @PostMapping("/transfer")
+    public ResponseEntity<WalletTransferResponse> transfer(@RequestBody WalletTransferRequest request) {
+        try {
+            return walletLedgerService.transfer(request.getFromUserId(), request.getToUserId(), request.getAmount(), request.getTransferId())
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.badRequest().build()); // Wallet not found or insufficient funds
+        } catch (DuplicateTransferException e) {
+            // An earlier attempt with this transferId already moved the money; a retry is told it succeeded.
+            return ResponseEntity.ok().build();
+        }
+    }
+
+    // Opt-in striping for hot (e.g. merchant) wallets: credits are spread across `stripes` rows. 0 turns it off.
+    @PostMapping("/user/{userId}/stripes")
+    public ResponseEntity<Wallet> configureStripes(@PathVariable Long userId, @RequestParam int stripes) {
+        return walletLedgerService.configureStripes(userId, stripes)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.badRequest().build());
+    }
 
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(walletCache.stats());
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.clone.paypal.wallet_service;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One immutable debit (negative amount) or credit (positive amount) in journal mode.
+@Entity
+@Table(name = "wallet_journal", indexes = @Index(name = "idx_wallet_journal_user_id", columnList = "userId, id"))
+public class WalletJournalEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, precision = 19, scale = 2) // Same as wallets.balance
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public WalletJournalEntry() {}
+
+    public WalletJournalEntry(Long userId, BigDecimal amount, LocalDateTime createdAt) {
+        this.userId = userId;
+        this.amount = amount;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
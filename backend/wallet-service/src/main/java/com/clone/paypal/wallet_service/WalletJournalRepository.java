@@ -0,0 +1,32 @@
+package com.clone.paypal.wallet_service;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface WalletJournalRepository extends JpaRepository<WalletJournalEntry, Long> {
+
+    @Query("select coalesce(sum(e.amount), 0) from WalletJournalEntry e where e.userId = :userId and e.id > :afterId")
+    BigDecimal sumAfter(@Param("userId") Long userId, @Param("afterId") Long afterId);
+
+    @Query("select coalesce(sum(e.amount), 0) from WalletJournalEntry e " +
+            "where e.userId = :userId and e.id > :afterId and e.id <= :upToId")
+    BigDecimal sumBetween(@Param("userId") Long userId, @Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    @Query("select coalesce(sum(e.amount), 0) from WalletJournalEntry e " +
+            "where e.userId = :userId and e.id > :afterId and e.createdAt <= :at")
+    BigDecimal sumAfterUpTo(@Param("userId") Long userId, @Param("afterId") Long afterId, @Param("at") LocalDateTime at);
+
+    Optional<WalletJournalEntry> findFirstByUserIdOrderByIdDesc(Long userId);
+
+    // Wallets whose journal tail (entries past their latest snapshot) has grown to at least minEntries.
+    @Query("select e.userId from WalletJournalEntry e " +
+            "where e.id > coalesce((select max(s.lastEntryId) from WalletSnapshot s where s.userId = e.userId), 0) " +
+            "group by e.userId having count(e) >= :minEntries")
+    List<Long> findUserIdsNeedingSnapshot(@Param("minEntries") long minEntries, Pageable pageable);
+}
@@ -0,0 +1,125 @@
+package com.clone.paypal.wallet_service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Event-sourced ledger used when wallet.ledger.mode=journal. The wallets row is never updated in this
+// mode: its balance is the opening balance, and the current balance is the latest snapshot plus the
+// journal entries appended after it.
+//
+// Every append holds a shared lock on the wallet row until it commits, and snapshot() takes the exclusive
+// lock, so a snapshot never runs while an append to that wallet is still uncommitted.
+@Service
+public class WalletJournalService {
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletJournalRepository walletJournalRepository;
+
+    @Autowired
+    private WalletSnapshotRepository walletSnapshotRepository;
+
+    // Credits only take the shared lock, so they never wait for each other or for debits' funds checks.
+    @Transactional
+    public Optional<BigDecimal> credit(Long userId, BigDecimal amount) {
+        Optional<Wallet> wallet = walletRepository.findByUserIdForShare(userId);
+        if (wallet.isEmpty()) {
+            return Optional.empty();
+        }
+        walletJournalRepository.save(new WalletJournalEntry(userId, amount, LocalDateTime.now()));
+        return Optional.of(fold(userId, wallet.get().getBalance()));
+    }
+
+    // Debits lock the wallet row exclusively so two debits cannot both pass the funds check.
+    @Transactional
+    public Optional<BigDecimal> debit(Long userId, BigDecimal amount) {
+        Optional<Wallet> wallet = walletRepository.findByUserIdForUpdate(userId);
+        if (wallet.isEmpty()) {
+            return Optional.empty();
+        }
+        BigDecimal balance = fold(userId, wallet.get().getBalance());
+        if (balance.compareTo(amount) < 0) {
+            return Optional.empty();
+        }
+        walletJournalRepository.save(new WalletJournalEntry(userId, amount.negate(), LocalDateTime.now()));
+        return Optional.of(balance.subtract(amount));
+    }
+
+    // The sender is locked exclusively and the recipient shared, in userId order so transfers in opposite
+    // directions cannot deadlock.
+    @Transactional
+    public Optional<WalletTransferResponse> transfer(Long fromUserId, Long toUserId, BigDecimal amount) {
+        Optional<Wallet> source;
+        Optional<Wallet> target;
+        if (fromUserId < toUserId) {
+            source = walletRepository.findByUserIdForUpdate(fromUserId);
+            target = walletRepository.findByUserIdForShare(toUserId);
+        } else {
+            target = walletRepository.findByUserIdForShare(toUserId);
+            source = walletRepository.findByUserIdForUpdate(fromUserId);
+        }
+        if (source.isEmpty() || target.isEmpty()) {
+            return Optional.empty();
+        }
+        BigDecimal sourceBalance = fold(fromUserId, source.get().getBalance());
+        if (sourceBalance.compareTo(amount) < 0) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        walletJournalRepository.save(new WalletJournalEntry(fromUserId, amount.negate(), now));
+        walletJournalRepository.save(new WalletJournalEntry(toUserId, amount, now));
+        return Optional.of(new WalletTransferResponse(
+                fromUserId, sourceBalance.subtract(amount), toUserId, fold(toUserId, target.get().getBalance())));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BigDecimal> balance(Long userId) {
+        return walletRepository.findBalanceByUserId(userId).map(openingBalance -> fold(userId, openingBalance));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BigDecimal> balanceAt(Long userId, LocalDateTime at) {
+        return walletRepository.findBalanceByUserId(userId).map(openingBalance ->
+                walletSnapshotRepository.findFirstByUserIdAndAsOfLessThanEqualOrderByLastEntryIdDesc(userId, at)
+                        .map(s -> s.getBalance().add(walletJournalRepository.sumAfterUpTo(userId, s.getLastEntryId(), at)))
+                        .orElseGet(() -> openingBalance.add(walletJournalRepository.sumAfterUpTo(userId, 0L, at))));
+    }
+
+    // Folds the journal tail of one wallet into a new snapshot.
+    @Transactional
+    public void snapshot(Long userId) {
+        // IDENTITY ids are handed out before commit, so an in-flight append could later commit an id below the
+        // newest visible one. Holding the exclusive lock waits those appends out and keeps new ones back.
+        Optional<Wallet> wallet = walletRepository.findByUserIdForUpdate(userId);
+        if (wallet.isEmpty()) {
+            return;
+        }
+        Optional<WalletJournalEntry> lastEntry = walletJournalRepository.findFirstByUserIdOrderByIdDesc(userId);
+        Optional<WalletSnapshot> latest = walletSnapshotRepository.findFirstByUserIdOrderByLastEntryIdDesc(userId);
+        long afterId = latest.map(WalletSnapshot::getLastEntryId).orElse(0L);
+        if (lastEntry.isEmpty() || lastEntry.get().getId() <= afterId) {
+            return;
+        }
+        BigDecimal base = latest.map(WalletSnapshot::getBalance)
+                .orElseGet(() -> wallet.get().getBalance());
+
+        WalletSnapshot snapshot = new WalletSnapshot();
+        snapshot.setUserId(userId);
+        snapshot.setBalance(base.add(walletJournalRepository.sumBetween(userId, afterId, lastEntry.get().getId())));
+        snapshot.setLastEntryId(lastEntry.get().getId());
+        snapshot.setAsOf(lastEntry.get().getCreatedAt());
+        walletSnapshotRepository.save(snapshot);
+    }
+
+    private BigDecimal fold(Long userId, BigDecimal openingBalance) {
+        return walletSnapshotRepository.findFirstByUserIdOrderByLastEntryIdDesc(userId)
+                .map(s -> s.getBalance().add(walletJournalRepository.sumAfter(userId, s.getLastEntryId())))
+                .orElseGet(() -> openingBalance.add(walletJournalRepository.sumAfter(userId, 0L)));
+    }
+}
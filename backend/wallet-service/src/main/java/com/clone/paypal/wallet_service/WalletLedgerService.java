@@ -0,0 +1,268 @@
+package com.clone.paypal.wallet_service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Lock ordering in row mode: wallets rows in ascending userId order first, then wallet_stripes rows.
+// Credits to a striped wallet lock a single stripe row and never its wallets row, unless the transfer
+// comes from another striped wallet.
+@Service
+public class WalletLedgerService {
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletStripeRepository walletStripeRepository;
+
+    @Autowired
+    private WalletJournalService walletJournalService;
+
+    @Autowired
+    private WalletTransferRepository walletTransferRepository;
+
+    @Autowired
+    private WalletCache walletCache;
+
+    // "row" updates the wallets row in place; "journal" appends to wallet_journal (see WalletJournalService).
+    @Value("${wallet.ledger.mode:row}")
+    private String ledgerMode;
+
+    @Transactional
+    public Wallet createWallet(Wallet wallet) {
+        wallet.setBalance(BigDecimal.ZERO); // Wallets start with a zero balance
+        wallet.setCurrency("INR");
+        Wallet savedWallet = walletRepository.save(wallet);
+        walletCache.writeThrough(savedWallet);
+        return savedWallet;
+    }
+
+    // Returns the wallet with its current balance, whichever mode is active.
+    @Transactional(readOnly = true)
+    public Optional<Wallet> findWallet(Long userId) {
+        Optional<Wallet> wallet = walletRepository.findByUserId(userId);
+        if (isJournalMode()) {
+            return wallet.map(w -> withBalance(w, walletJournalService.balance(userId).orElse(w.getBalance())));
+        }
+        return wallet.map(w -> isStriped(w.getStripes())
+                ? withBalance(w, w.getBalance().add(walletStripeRepository.sumBalances(userId)))
+                : w);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BigDecimal> balance(Long userId) {
+        return isJournalMode() ? walletJournalService.balance(userId) : rowBalance(userId, isStripedWallet(userId));
+    }
+
+    // Point-in-time balances need the journal, so they are only available in journal mode.
+    public Optional<BigDecimal> balanceAt(Long userId, LocalDateTime at) {
+        return isJournalMode() ? walletJournalService.balanceAt(userId, at) : Optional.empty();
+    }
+
+    public boolean isJournalMode() {
+        return "journal".equalsIgnoreCase(ledgerMode);
+    }
+
+    // Returns the new balance, or empty if the wallet does not exist or has insufficient funds.
+    @Transactional
+    public Optional<BigDecimal> debit(Long userId, Money money) {
+        if (!isPositive(money)) {
+            return Optional.empty();
+        }
+        BigDecimal amount = money.toBigDecimal(); // DECIMAL column parameter
+        if (isJournalMode()) {
+            walletCache.evict(userId);
+            return walletJournalService.debit(userId, amount);
+        }
+        boolean striped = isStripedWallet(userId);
+        if (walletRepository.debit(userId, amount) == 0) {
+            // The wallets row alone can't cover it; pull the stripes into it and try once more.
+            if (!striped || walletRepository.findByUserIdForUpdate(userId).isEmpty()) {
+                return Optional.empty();
+            }
+            sweepStripes(userId);
+            if (walletRepository.debit(userId, amount) == 0) {
+                return Optional.empty();
+            }
+        }
+        // The row stays locked until commit, so this read sees exactly our write.
+        Optional<BigDecimal> balance = rowBalance(userId, striped);
+        updateCache(userId, striped, balance);
+        return balance;
+    }
+
+    // Returns the new balance, or empty if the wallet does not exist.
+    @Transactional
+    public Optional<BigDecimal> credit(Long userId, Money money) {
+        if (!isPositive(money)) {
+            return Optional.empty();
+        }
+        BigDecimal amount = money.toBigDecimal();
+        if (isJournalMode()) {
+            walletCache.evict(userId);
+            return walletJournalService.credit(userId, amount);
+        }
+        int stripes = stripeCount(userId);
+        if (!creditStripe(userId, stripes, amount) && walletRepository.credit(userId, amount) == 0) {
+            return Optional.empty();
+        }
+        Optional<BigDecimal> balance = rowBalance(userId, isStriped(stripes));
+        updateCache(userId, isStriped(stripes), balance);
+        return balance;
+    }
+
+    // Moves funds between two wallets in one local transaction. Returns empty if either wallet
+    // does not exist, the sender has insufficient funds, or the request is invalid.
+    @Transactional
+    public Optional<WalletTransferResponse> transfer(Long fromUserId, Long toUserId, Money money) {
+        if (!isPositive(money) || fromUserId == null || toUserId == null || fromUserId.equals(toUserId)) {
+            return Optional.empty();
+        }
+        BigDecimal amount = money.toBigDecimal();
+        if (isJournalMode()) {
+            walletCache.evict(fromUserId);
+            walletCache.evict(toUserId);
+            return walletJournalService.transfer(fromUserId, toUserId, amount);
+        }
+        int targetStripes = stripeCount(toUserId);
+        boolean sourceStriped = isStripedWallet(fromUserId);
+        if (isStriped(targetStripes) && !sourceStriped) {
+            // Hot target: its wallets row is left alone and the credit lands on a stripe. The sender has no
+            // stripes to sweep, so this takes one wallets row and one stripe row and can't close a cycle.
+            if (walletRepository.findByUserIdForUpdate(fromUserId).isEmpty()) {
+                return Optional.empty();
+            }
+        } else {
+            // Always lock the lower userId first so two opposite transfers can never deadlock. A striped sender
+            // may sweep its stripes below, so both rows are taken before any stripe: otherwise two striped
+            // wallets paying each other could each hold their own stripes and wait for the other's.
+            Optional<Wallet> first = walletRepository.findByUserIdForUpdate(Math.min(fromUserId, toUserId));
+            Optional<Wallet> second = walletRepository.findByUserIdForUpdate(Math.max(fromUserId, toUserId));
+            if (first.isEmpty() || second.isEmpty()) {
+                return Optional.empty();
+            }
+        }
+        if (walletRepository.debit(fromUserId, amount) == 0) {
+            if (!sourceStriped) {
+                return Optional.empty();
+            }
+            sweepStripes(fromUserId);
+            if (walletRepository.debit(fromUserId, amount) == 0) {
+                return Optional.empty();
+            }
+        }
+        if (!creditStripe(toUserId, targetStripes, amount) && walletRepository.credit(toUserId, amount) == 0) {
+            // Target wallet vanished between the stripe lookup and the credit; undo the debit.
+            throw new IllegalStateException("Wallet of user " + toUserId + " not found");
+        }
+        Optional<BigDecimal> fromBalance = rowBalance(fromUserId, sourceStriped);
+        Optional<BigDecimal> toBalance = rowBalance(toUserId, isStriped(targetStripes));
+        updateCache(fromUserId, sourceStriped, fromBalance);
+        updateCache(toUserId, isStriped(targetStripes), toBalance);
+        return Optional.of(new WalletTransferResponse(fromUserId, fromBalance.orElseThrow(), toUserId, toBalance.orElseThrow()));
+    }
+
+    // Same as transfer(fromUserId, toUserId, money), but applied at most once per transferId: a repeat throws
+    // DuplicateTransferException and moves nothing. A null transferId is never deduplicated.
+    @Transactional
+    public Optional<WalletTransferResponse> transfer(Long fromUserId, Long toUserId, Money money, String transferId) {
+        if (transferId == null) {
+            return transfer(fromUserId, toUserId, money);
+        }
+        if (walletTransferRepository.existsById(transferId)) {
+            throw new DuplicateTransferException(transferId);
+        }
+        Optional<WalletTransferResponse> response = transfer(fromUserId, toUserId, money);
+        if (response.isPresent()) {
+            try {
+                // Concurrent repeats both get this far; the primary key lets only one of them commit.
+                walletTransferRepository.insert(transferId, fromUserId, toUserId, money.toBigDecimal(), LocalDateTime.now());
+            } catch (DataIntegrityViolationException e) {
+                throw new DuplicateTransferException(transferId);
+            }
+        }
+        return response;
+    }
+
+    // Spreads future credits to this wallet across the given number of stripe rows (0 or 1 turns striping off).
+    // Whatever the existing stripes hold is folded back into the wallets row first.
+    @Transactional
+    public Optional<Wallet> configureStripes(Long userId, int stripes) {
+        if (isJournalMode() || stripes < 0 || walletRepository.findByUserIdForUpdate(userId).isEmpty()) {
+            return Optional.empty();
+        }
+        sweepStripes(userId);
+        walletStripeRepository.deleteByUserId(userId);
+        for (int i = 0; isStriped(stripes) && i < stripes; i++) {
+            walletStripeRepository.save(new WalletStripe(userId, i, BigDecimal.ZERO));
+        }
+        walletRepository.updateStripes(userId, isStriped(stripes) ? stripes : null);
+        walletCache.evict(userId);
+        return walletRepository.findByUserId(userId);
+    }
+
+    // Moves everything the stripes hold back into the wallets row. The caller must already hold
+    // the wallets row lock, since stripes are always locked after it.
+    private void sweepStripes(Long userId) {
+        List<WalletStripe> stripes = walletStripeRepository.findAllByUserIdForUpdate(userId);
+        BigDecimal total = stripes.stream().map(WalletStripe::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.signum() > 0) {
+            walletStripeRepository.resetBalances(userId);
+            walletRepository.credit(userId, total);
+        }
+    }
+
+    // Striped balances are written without the wallets row lock, so they can only be evicted, not written through.
+    private void updateCache(Long userId, boolean striped, Optional<BigDecimal> balance) {
+        if (striped || balance.isEmpty()) {
+            walletCache.evict(userId);
+        } else {
+            walletCache.writeThrough(userId, balance.get());
+        }
+    }
+
+    // Returns false if the wallet isn't striped or its stripes were removed concurrently.
+    private boolean creditStripe(Long userId, int stripes, BigDecimal amount) {
+        return isStriped(stripes)
+                && walletStripeRepository.credit(userId, ThreadLocalRandom.current().nextInt(stripes), amount) == 1;
+    }
+
+    private Optional<BigDecimal> rowBalance(Long userId, boolean striped) {
+        Optional<BigDecimal> balance = walletRepository.findBalanceByUserId(userId);
+        return striped ? balance.map(b -> b.add(walletStripeRepository.sumBalances(userId))) : balance;
+    }
+
+    private int stripeCount(Long userId) {
+        return walletRepository.findStripesByUserId(userId).orElse(0);
+    }
+
+    private boolean isStripedWallet(Long userId) {
+        return isStriped(stripeCount(userId));
+    }
+
+    private static boolean isStriped(Integer stripes) {
+        return stripes != null && stripes > 1;
+    }
+
+    private static Wallet withBalance(Wallet wallet, BigDecimal balance) {
+        Wallet copy = new Wallet();
+        copy.setId(wallet.getId());
+        copy.setUserId(wallet.getUserId());
+        copy.setBalance(balance);
+        copy.setCurrency(wallet.getCurrency());
+        copy.setStripes(wallet.getStripes());
+        return copy;
+    }
+
+    private static boolean isPositive(Money amount) {
+        return amount != null && amount.isPositive();
+    }
+}
@@ -1,9 +1,55 @@
 package com.clone.paypal.wallet_service;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
     // A custom method to find a wallet by the user's ID
     Optional<Wallet> findByUserId(Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from Wallet w where w.userId = :userId")
+    Optional<Wallet> findByUserIdForUpdate(@Param("userId") Long userId);
+
+    // Shared lock taken by journal appends: appends don't block each other, only a snapshot of the wallet.
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select w from Wallet w where w.userId = :userId")
+    Optional<Wallet> findByUserIdForShare(@Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select w from Wallet w where w.userId in :userIds order by w.userId")
+    List<Wallet> findAllByUserIdInForShare(@Param("userIds") Collection<Long> userIds);
+
+    // Ordered by userId so bulk loads take row locks in the same order as single transfers.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from Wallet w where w.userId in :userIds order by w.userId")
+    List<Wallet> findAllByUserIdInForUpdate(@Param("userIds") Collection<Long> userIds);
+
+    @Query("select w.balance from Wallet w where w.userId = :userId")
+    Optional<BigDecimal> findBalanceByUserId(@Param("userId") Long userId);
+
+    @Query("select w.stripes from Wallet w where w.userId = :userId")
+    Optional<Integer> findStripesByUserId(@Param("userId") Long userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Wallet w set w.stripes = :stripes where w.userId = :userId")
+    int updateStripes(@Param("userId") Long userId, @Param("stripes") Integer stripes);
+
+    // Conditional updates: the balance check and the write happen in a single statement,
+    // so concurrent debits/credits on the same wallet can never overwrite each other.
+    @Modifying(clearAutomatically = true)
+    @Query("update Wallet w set w.balance = w.balance - :amount where w.userId = :userId and w.balance >= :amount")
+    int debit(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Wallet w set w.balance = w.balance + :amount where w.userId = :userId")
+    int credit(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
 }
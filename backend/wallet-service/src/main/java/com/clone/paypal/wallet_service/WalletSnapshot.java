@@ -0,0 +1,67 @@
+package com.clone.paypal.wallet_service;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The folded balance of a wallet including every journal entry up to lastEntryId.
+@Entity
+@Table(name = "wallet_snapshots", indexes = @Index(name = "idx_wallet_snapshots_user_id", columnList = "userId, lastEntryId"))
+public class WalletSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, precision = 19, scale = 2) // Same as wallets.balance
+    private BigDecimal balance;
+
+    @Column(nullable = false)
+    private Long lastEntryId;
+
+    @Column(nullable = false)
+    private LocalDateTime asOf; // createdAt of the entry at lastEntryId
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public Long getLastEntryId() {
+        return lastEntryId;
+    }
+
+    public void setLastEntryId(Long lastEntryId) {
+        this.lastEntryId = lastEntryId;
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDateTime asOf) {
+        this.asOf = asOf;
+    }
+}
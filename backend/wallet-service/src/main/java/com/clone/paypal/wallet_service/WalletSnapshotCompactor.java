@@ -0,0 +1,46 @@
+package com.clone.paypal.wallet_service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+// Keeps journal tails short by periodically folding them into snapshots, so balance reads stay cheap.
+@Component
+@ConditionalOnProperty(name = "wallet.ledger.mode", havingValue = "journal")
+public class WalletSnapshotCompactor {
+    private static final Logger logger = LoggerFactory.getLogger(WalletSnapshotCompactor.class);
+
+    @Autowired
+    private WalletJournalRepository walletJournalRepository;
+
+    @Autowired
+    private WalletJournalService walletJournalService;
+
+    @Value("${wallet.journal.snapshot-threshold:100}")
+    private long snapshotThreshold;
+
+    @Value("${wallet.journal.compaction-batch-size:100}")
+    private int compactionBatchSize;
+
+    @Scheduled(fixedDelayString = "${wallet.journal.compaction-interval-ms:30000}")
+    public void compact() {
+        List<Long> userIds = walletJournalRepository.findUserIdsNeedingSnapshot(
+                snapshotThreshold, PageRequest.of(0, compactionBatchSize));
+        for (Long userId : userIds) {
+            try {
+                walletJournalService.snapshot(userId);
+            } catch (Exception e) {
+                logger.warn("Failed to snapshot wallet of user {}", userId, e);
+            }
+        }
+        if (!userIds.isEmpty()) {
+            logger.info("Compacted journal into snapshots for {} wallets", userIds.size());
+        }
+    }
+}
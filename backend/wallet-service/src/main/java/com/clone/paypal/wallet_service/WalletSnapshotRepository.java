@@ -0,0 +1,11 @@
+package com.clone.paypal.wallet_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface WalletSnapshotRepository extends JpaRepository<WalletSnapshot, Long> {
+    Optional<WalletSnapshot> findFirstByUserIdOrderByLastEntryIdDesc(Long userId);
+
+    Optional<WalletSnapshot> findFirstByUserIdAndAsOfLessThanEqualOrderByLastEntryIdDesc(Long userId, LocalDateTime at);
+}
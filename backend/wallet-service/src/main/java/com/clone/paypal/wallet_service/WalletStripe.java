@@ -0,0 +1,63 @@
+package com.clone.paypal.wallet_service;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+// One of the N sub-account rows a hot wallet's credits are spread across (see WalletLedgerService).
+@Entity
+@Table(name = "wallet_stripes", uniqueConstraints = @UniqueConstraint(columnNames = {"userId", "stripeIndex"}))
+public class WalletStripe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Integer stripeIndex;
+
+    @Column(nullable = false, precision = 19, scale = 2) // Same as wallets.balance; needed for the credit update
+    private BigDecimal balance;
+
+    public WalletStripe() {}
+
+    public WalletStripe(Long userId, Integer stripeIndex, BigDecimal balance) {
+        this.userId = userId;
+        this.stripeIndex = stripeIndex;
+        this.balance = balance;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Integer getStripeIndex() {
+        return stripeIndex;
+    }
+
+    public void setStripeIndex(Integer stripeIndex) {
+        this.stripeIndex = stripeIndex;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
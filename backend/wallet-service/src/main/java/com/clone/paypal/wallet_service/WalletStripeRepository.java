@@ -0,0 +1,32 @@
+package com.clone.paypal.wallet_service;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface WalletStripeRepository extends JpaRepository<WalletStripe, Long> {
+
+    @Query("select coalesce(sum(s.balance), 0) from WalletStripe s where s.userId = :userId")
+    BigDecimal sumBalances(@Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from WalletStripe s where s.userId = :userId order by s.stripeIndex")
+    List<WalletStripe> findAllByUserIdForUpdate(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update WalletStripe s set s.balance = s.balance + :amount where s.userId = :userId and s.stripeIndex = :stripeIndex")
+    int credit(@Param("userId") Long userId, @Param("stripeIndex") int stripeIndex, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("update WalletStripe s set s.balance = 0 where s.userId = :userId")
+    int resetBalances(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from WalletStripe s where s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,10 +1,8 @@
 package com.clone.paypal.wallet_service;
 
-import java.math.BigDecimal;
-
 public class WalletTransactionRequest {
     private Long userId;
-    private BigDecimal amount;
+    private Money amount;
 
     public Long getUserId() {
         return userId;
@@ -14,11 +12,11 @@ public class WalletTransactionRequest {
         this.userId = userId;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 }
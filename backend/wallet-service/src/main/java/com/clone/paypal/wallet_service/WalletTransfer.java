@@ -0,0 +1,78 @@
+package com.clone.paypal.wallet_service;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// A transfer applied under a caller-supplied id. The primary key makes a repeated id fail instead of
+// moving the money again (see WalletLedgerService.transfer).
+@Entity
+@Table(name = "wallet_transfers")
+public class WalletTransfer {
+
+    @Id
+    @Column(length = 255)
+    private String transferId;
+
+    @Column(nullable = false)
+    private Long fromUserId;
+
+    @Column(nullable = false)
+    private Long toUserId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public WalletTransfer() {}
+
+    public WalletTransfer(String transferId, Long fromUserId, Long toUserId, BigDecimal amount, LocalDateTime createdAt) {
+        this.transferId = transferId;
+        this.fromUserId = fromUserId;
+        this.toUserId = toUserId;
+        this.amount = amount;
+        this.createdAt = createdAt;
+    }
+
+    public String getTransferId() {
+        return transferId;
+    }
+
+    public void setTransferId(String transferId) {
+        this.transferId = transferId;
+    }
+
+    public Long getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(Long fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public Long getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(Long toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
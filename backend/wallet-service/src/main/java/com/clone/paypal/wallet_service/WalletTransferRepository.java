@@ -0,0 +1,18 @@
+package com.clone.paypal.wallet_service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface WalletTransferRepository extends JpaRepository<WalletTransfer, String> {
+
+    // A plain insert, so a repeated transferId fails on the primary key. save() would merge into the existing row.
+    @Modifying
+    @Query(value = "insert into wallet_transfers (transfer_id, from_user_id, to_user_id, amount, created_at) " +
+            "values (:transferId, :fromUserId, :toUserId, :amount, :createdAt)", nativeQuery = true)
+    int insert(@Param("transferId") String transferId, @Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId,
+               @Param("amount") BigDecimal amount, @Param("createdAt") LocalDateTime createdAt);
+}
@@ -0,0 +1,51 @@
+package com.clone.paypal.wallet_service;
+
+import java.math.BigDecimal;
+
+public class WalletTransferResponse {
+    private Long fromUserId;
+    private BigDecimal fromBalance;
+    private Long toUserId;
+    private BigDecimal toBalance;
+
+    public WalletTransferResponse() {}
+
+    public WalletTransferResponse(Long fromUserId, BigDecimal fromBalance, Long toUserId, BigDecimal toBalance) {
+        this.fromUserId = fromUserId;
+        this.fromBalance = fromBalance;
+        this.toUserId = toUserId;
+        this.toBalance = toBalance;
+    }
+
+    public Long getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(Long fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public BigDecimal getFromBalance() {
+        return fromBalance;
+    }
+
+    public void setFromBalance(BigDecimal fromBalance) {
+        this.fromBalance = fromBalance;
+    }
+
+    public Long getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(Long toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public BigDecimal getToBalance() {
+        return toBalance;
+    }
+
+    public void setToBalance(BigDecimal toBalance) {
+        this.toBalance = toBalance;
+    }
+}
@@ -0,0 +1,161 @@
+package com.clone.paypal.wallet_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@Import({WalletBatchService.class, WalletLedgerService.class, WalletJournalService.class, WalletCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // each chunk commits or rolls back on its own
+class WalletBatchServiceTests {
+
+	// Largest balance wallets.balance (precision 19, scale 2) can hold; crediting it fails the UPDATE.
+	private static final BigDecimal FULL_BALANCE = new BigDecimal("99999999999999999.99");
+
+	@Autowired
+	private WalletBatchService walletBatchService;
+
+	@Autowired
+	private WalletLedgerService walletLedgerService;
+
+	@Autowired
+	private WalletRepository walletRepository;
+
+	@Autowired
+	private WalletJournalRepository walletJournalRepository;
+
+	@BeforeEach
+	void setUp() {
+		walletJournalRepository.deleteAll();
+		walletRepository.deleteAll();
+		ReflectionTestUtils.setField(walletLedgerService, "ledgerMode", "row");
+		ReflectionTestUtils.setField(walletBatchService, "chunkSize", 2);
+	}
+
+	@Test
+	void returnsOneResultPerItemInRequestOrder() {
+		createWallet(1L, BigDecimal.TEN);
+		createWallet(2L, BigDecimal.ZERO);
+
+		List<BatchCreditResult> results = walletBatchService.creditAll(List.of(
+				credit(1L, "5"), credit(99L, "5"), credit(2L, "0"), credit(1L, "2.50"), credit(null, "1")));
+
+		assertThat(results).extracting(BatchCreditResult::getUserId).containsExactly(1L, 99L, 2L, 1L, null);
+		assertThat(results).extracting(BatchCreditResult::getStatus).containsExactly(
+				BatchCreditResult.CREDITED, BatchCreditResult.WALLET_NOT_FOUND, BatchCreditResult.INVALID_AMOUNT,
+				BatchCreditResult.CREDITED, BatchCreditResult.WALLET_NOT_FOUND);
+		assertThat(results.get(0).getBalance()).isEqualByComparingTo("15");
+		assertThat(results.get(3).getBalance()).isEqualByComparingTo("17.50");
+		assertThat(balance(1L)).isEqualByComparingTo("17.50");
+		assertThat(balance(2L)).isEqualByComparingTo("0");
+	}
+
+	@Test
+	void aFailingChunkOnlyFailsItsOwnItems() {
+		createWallet(1L, BigDecimal.ZERO);
+		createWallet(2L, FULL_BALANCE);
+		createWallet(3L, BigDecimal.ZERO);
+
+		// Chunks of two: [1, 1], [3, 2], [3].
+		List<BatchCreditResult> results = walletBatchService.creditAll(List.of(
+				credit(1L, "1"), credit(1L, "1"), credit(3L, "1"), credit(2L, "1"), credit(3L, "1")));
+
+		assertThat(results).extracting(BatchCreditResult::getStatus).containsExactly(
+				BatchCreditResult.CREDITED, BatchCreditResult.CREDITED,
+				BatchCreditResult.FAILED, BatchCreditResult.FAILED,
+				BatchCreditResult.CREDITED);
+		assertThat(balance(1L)).isEqualByComparingTo("2");
+		assertThat(balance(2L)).isEqualByComparingTo(FULL_BALANCE);
+		// The failed chunk's credit to wallet 3 was rolled back with it.
+		assertThat(balance(3L)).isEqualByComparingTo("1");
+	}
+
+	@Test
+	void journalModeAppendsOneEntryPerCredit() {
+		ReflectionTestUtils.setField(walletLedgerService, "ledgerMode", "journal");
+		createWallet(1L, BigDecimal.TEN);
+		createWallet(2L, BigDecimal.ZERO);
+
+		List<BatchCreditResult> results = walletBatchService.creditAll(List.of(
+				credit(1L, "5"), credit(2L, "1.25"), credit(99L, "1"), credit(1L, "-1"), credit(1L, "0.75")));
+
+		assertThat(results).extracting(BatchCreditResult::getStatus).containsExactly(
+				BatchCreditResult.CREDITED, BatchCreditResult.CREDITED, BatchCreditResult.WALLET_NOT_FOUND,
+				BatchCreditResult.INVALID_AMOUNT, BatchCreditResult.CREDITED);
+		assertThat(results).extracting(BatchCreditResult::getBalance).containsOnlyNulls();
+		assertThat(walletJournalRepository.findAll())
+				.extracting(WalletJournalEntry::getUserId, e -> e.getAmount().stripTrailingZeros().toPlainString())
+				.containsExactlyInAnyOrder(
+						tuple(1L, "5"),
+						tuple(2L, "1.25"),
+						tuple(1L, "0.75"));
+		// The opening balance is untouched; the credits show up in the folded balance.
+		assertThat(balance(1L)).isEqualByComparingTo("10");
+		assertThat(walletLedgerService.balance(1L)).hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo("15.75"));
+	}
+
+	@Test
+	void batchCreditBeatsOneCreditPerRequest() {
+		int wallets = 500;
+		int credits = 5000;
+		ReflectionTestUtils.setField(walletBatchService, "chunkSize", 500);
+		for (long userId = 1; userId <= wallets; userId++) {
+			createWallet(userId, BigDecimal.ZERO);
+		}
+		List<WalletTransactionRequest> requests = new ArrayList<>(credits);
+		for (int i = 0; i < credits; i++) {
+			requests.add(credit((long) (i % wallets) + 1, "1"));
+		}
+
+		long start = System.nanoTime();
+		for (WalletTransactionRequest request : requests) {
+			walletLedgerService.credit(request.getUserId(), request.getAmount());
+		}
+		long singleNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		List<BatchCreditResult> results = walletBatchService.creditAll(requests);
+		long batchNanos = System.nanoTime() - start;
+
+		report("one credit per request", credits, singleNanos);
+		report("batch credit (chunks of 500)", credits, batchNanos);
+		assertThat(results).extracting(BatchCreditResult::getStatus).containsOnly(BatchCreditResult.CREDITED);
+		assertThat(balance(1L)).isEqualByComparingTo(BigDecimal.valueOf(2L * credits / wallets));
+	}
+
+	private void createWallet(Long userId, BigDecimal balance) {
+		Wallet wallet = new Wallet();
+		wallet.setUserId(userId);
+		wallet.setBalance(balance);
+		wallet.setCurrency("INR");
+		walletRepository.save(wallet);
+	}
+
+	private BigDecimal balance(Long userId) {
+		return walletRepository.findBalanceByUserId(userId).orElseThrow();
+	}
+
+	private static WalletTransactionRequest credit(Long userId, String amount) {
+		WalletTransactionRequest request = new WalletTransactionRequest();
+		request.setUserId(userId);
+		request.setAmount(Money.of(new BigDecimal(amount)));
+		return request;
+	}
+
+	private static void report(String label, int credits, long elapsedNanos) {
+		double creditsPerSecond = credits / (elapsedNanos / 1_000_000_000.0);
+		System.out.printf("%s: %d credits -> %.0f credits/sec%n", label, credits, creditsPerSecond);
+	}
+}
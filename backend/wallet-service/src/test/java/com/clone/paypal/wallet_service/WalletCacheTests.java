@@ -0,0 +1,123 @@
+package com.clone.paypal.wallet_service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class WalletCacheTests {
+
+	private static final Long USER_ID = 1L;
+
+	private final WalletCache walletCache = new WalletCache(100, 300);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void aStaleWriteCommittingLastDoesNotOverwriteANewerBalance() {
+		cached(BigDecimal.ZERO);
+
+		// Both writers take their sequence under the row lock, older first, but commit in the other order.
+		List<TransactionSynchronization> older = inTransaction(() -> walletCache.writeThrough(USER_ID, BigDecimal.valueOf(10)));
+		List<TransactionSynchronization> newer = inTransaction(() -> walletCache.writeThrough(USER_ID, BigDecimal.valueOf(20)));
+		TransactionSynchronizationUtils.invokeAfterCommit(newer);
+		TransactionSynchronizationUtils.invokeAfterCommit(older);
+
+		assertThat(balance()).isEqualByComparingTo("20");
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void aRolledBackWriteLeavesTheCacheUntouched() {
+		cached(BigDecimal.TEN);
+
+		List<TransactionSynchronization> rolledBack = inTransaction(() -> {
+			walletCache.writeThrough(USER_ID, BigDecimal.valueOf(99));
+			walletCache.evict(USER_ID);
+		});
+		TransactionSynchronizationUtils.invokeAfterCompletion(rolledBack, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+		assertThat(balance()).isEqualByComparingTo("10");
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void invalidationsFromOtherInstancesEvict() {
+		@SuppressWarnings("unchecked")
+		KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+		WalletCacheInvalidationPublisher publisher = new WalletCacheInvalidationPublisher();
+		ReflectionTestUtils.setField(publisher, "kafkaTemplate", kafkaTemplate);
+		ReflectionTestUtils.setField(walletCache, "invalidationPublisher", publisher);
+		WalletCacheInvalidationListener listener = new WalletCacheInvalidationListener();
+		ReflectionTestUtils.setField(listener, "walletCache", walletCache);
+		ReflectionTestUtils.setField(listener, "walletCacheInvalidationPublisher", publisher);
+		cached(BigDecimal.TEN);
+
+		// Our own invalidation comes back from Kafka too; it must not throw away the entry we just wrote.
+		walletCache.writeThrough(USER_ID, BigDecimal.valueOf(15));
+		verify(kafkaTemplate).send(WalletCacheInvalidationPublisher.TOPIC, "1", publisher.getNodeId());
+		listener.onInvalidation(invalidation(publisher.getNodeId()));
+		assertThat(balance()).isEqualByComparingTo("15");
+		assertThat(loads).hasValue(1);
+
+		listener.onInvalidation(invalidation("other-node"));
+		assertThat(balance()).isEqualByComparingTo("10");
+		assertThat(loads).hasValue(2);
+	}
+
+	private void cached(BigDecimal balance) {
+		walletCache.get(USER_ID, id -> load(balance));
+	}
+
+	// Reads through the cache; a miss loads a balance of 10.
+	private BigDecimal balance() {
+		return walletCache.get(USER_ID, id -> load(BigDecimal.TEN)).orElseThrow().getBalance();
+	}
+
+	private Optional<Wallet> load(BigDecimal balance) {
+		loads.incrementAndGet();
+		return Optional.of(wallet(balance));
+	}
+
+	// Runs the writes as one transaction would and returns what it registered to run after commit.
+	private static List<TransactionSynchronization> inTransaction(Runnable writes) {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			writes.run();
+			return TransactionSynchronizationManager.getSynchronizations();
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private static Wallet wallet(BigDecimal balance) {
+		Wallet wallet = new Wallet();
+		wallet.setUserId(USER_ID);
+		wallet.setBalance(balance);
+		wallet.setCurrency("INR");
+		return wallet;
+	}
+
+	private static ConsumerRecord<String, String> invalidation(String nodeId) {
+		return new ConsumerRecord<>(WalletCacheInvalidationPublisher.TOPIC, 0, 0L, String.valueOf(USER_ID), nodeId);
+	}
+}
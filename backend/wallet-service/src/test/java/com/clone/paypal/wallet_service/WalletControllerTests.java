@@ -0,0 +1,43 @@
+package com.clone.paypal.wallet_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class WalletControllerTests {
+
+	private final WalletBatchService walletBatchService = mock(WalletBatchService.class);
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		WalletController controller = new WalletController();
+		ReflectionTestUtils.setField(controller, "walletBatchService", walletBatchService);
+		ReflectionTestUtils.setField(controller, "maxBatchItems", 2);
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@Test
+	void batchCreditRejectsEmptyOversizedAndNullItems() throws Exception {
+		creditBatch("[]");
+		creditBatch("[{\"userId\":1,\"amount\":5}, {\"userId\":2,\"amount\":5}, {\"userId\":3,\"amount\":5}]");
+		creditBatch("[{\"userId\":1,\"amount\":5}, null]");
+
+		verify(walletBatchService, never()).creditAll(any());
+	}
+
+	private void creditBatch(String body) throws Exception {
+		mockMvc.perform(post("/api/wallets/credits:batch").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isBadRequest());
+	}
+}
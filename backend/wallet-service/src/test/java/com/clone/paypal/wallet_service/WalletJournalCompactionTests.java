@@ -0,0 +1,124 @@
+package com.clone.paypal.wallet_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({WalletLedgerService.class, WalletJournalService.class, WalletCache.class})
+@TestPropertySource(properties = "wallet.ledger.mode=journal")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // appends and snapshots must commit on their own threads
+class WalletJournalCompactionTests {
+
+	private static final Long USER_ID = 1L;
+	private static final Long OTHER_USER_ID = 2L;
+	private static final int THREADS = 8;
+	private static final int OPS_PER_THREAD = 100;
+
+	@Autowired
+	private WalletLedgerService walletLedgerService;
+
+	@Autowired
+	private WalletJournalService walletJournalService;
+
+	@Autowired
+	private WalletRepository walletRepository;
+
+	@Autowired
+	private WalletJournalRepository walletJournalRepository;
+
+	@Autowired
+	private WalletSnapshotRepository walletSnapshotRepository;
+
+	@BeforeEach
+	void setUp() {
+		walletSnapshotRepository.deleteAll();
+		walletJournalRepository.deleteAll();
+		walletRepository.deleteAll();
+		createWallet(USER_ID, BigDecimal.valueOf(1000));
+		createWallet(OTHER_USER_ID, BigDecimal.valueOf(1000));
+	}
+
+	@Test
+	void snapshotsTakenDuringAppendsNeverLoseAnEntry() throws Exception {
+		AtomicBoolean appending = new AtomicBoolean(true);
+		AtomicInteger snapshots = new AtomicInteger();
+		Thread compactor = new Thread(() -> {
+			while (appending.get()) {
+				walletJournalService.snapshot(USER_ID);
+				walletJournalService.snapshot(OTHER_USER_ID);
+				snapshots.incrementAndGet();
+			}
+		});
+		compactor.start();
+
+		AtomicInteger turn = new AtomicInteger();
+		try {
+			runConcurrently(() -> {
+				switch (turn.getAndIncrement() % 3) {
+					case 0 -> walletLedgerService.credit(USER_ID, Money.of(BigDecimal.ONE));
+					case 1 -> walletLedgerService.debit(USER_ID, Money.of(BigDecimal.ONE));
+					default -> walletLedgerService.transfer(OTHER_USER_ID, USER_ID, Money.of(BigDecimal.ONE));
+				}
+			});
+		} finally {
+			appending.set(false);
+			compactor.join();
+		}
+		walletJournalService.snapshot(USER_ID);
+
+		// Every third op is a credit, a debit and a transfer in; only the transfers move money between the wallets.
+		int transfers = THREADS * OPS_PER_THREAD / 3;
+		assertThat(snapshots.get()).isPositive();
+		assertThat(walletLedgerService.balance(USER_ID))
+				.hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo(BigDecimal.valueOf(1000 + transfers)));
+		assertThat(walletLedgerService.balance(OTHER_USER_ID))
+				.hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo(BigDecimal.valueOf(1000 - transfers)));
+		// The last snapshot covers the whole journal, so the folded balance doesn't depend on the tail.
+		assertThat(walletSnapshotRepository.findFirstByUserIdOrderByLastEntryIdDesc(USER_ID).orElseThrow().getBalance())
+				.isEqualByComparingTo(BigDecimal.valueOf(1000 + transfers));
+	}
+
+	private void createWallet(Long userId, BigDecimal openingBalance) {
+		Wallet wallet = new Wallet();
+		wallet.setUserId(userId);
+		wallet.setBalance(openingBalance);
+		wallet.setCurrency("INR");
+		walletRepository.save(wallet);
+	}
+
+	private void runConcurrently(Runnable operation) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < OPS_PER_THREAD; i++) {
+						operation.run();
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.clone.paypal.wallet_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({WalletLedgerService.class, WalletJournalService.class, WalletCache.class})
+@TestPropertySource(properties = "wallet.ledger.mode=journal")
+class WalletJournalServiceTests {
+
+	private static final Long USER_ID = 1L;
+
+	@Autowired
+	private WalletLedgerService walletLedgerService;
+
+	@Autowired
+	private WalletJournalService walletJournalService;
+
+	@Autowired
+	private WalletRepository walletRepository;
+
+	@Autowired
+	private WalletJournalRepository walletJournalRepository;
+
+	@BeforeEach
+	void setUp() {
+		Wallet wallet = new Wallet();
+		wallet.setUserId(USER_ID);
+		wallet.setBalance(BigDecimal.valueOf(10)); // opening balance from before the switch to journal mode
+		wallet.setCurrency("INR");
+		walletRepository.save(wallet);
+	}
+
+	@Test
+	void balanceIsFoldedFromOpeningBalanceAndJournal() {
+		walletLedgerService.credit(USER_ID, Money.of(BigDecimal.valueOf(50)));
+		walletLedgerService.debit(USER_ID, Money.of(BigDecimal.valueOf(20)));
+
+		assertThat(walletLedgerService.balance(USER_ID)).hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo("40"));
+		assertThat(walletLedgerService.debit(USER_ID, Money.of(BigDecimal.valueOf(41)))).isEmpty();
+		assertThat(walletRepository.findBalanceByUserId(USER_ID)).hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo("10"));
+		assertThat(walletJournalRepository.count()).isEqualTo(2);
+	}
+
+	@Test
+	void snapshotKeepsBalanceAndPointInTimeQueries() throws Exception {
+		walletLedgerService.credit(USER_ID, Money.of(BigDecimal.valueOf(5)));
+		Thread.sleep(5);
+		LocalDateTime afterFirstCredit = LocalDateTime.now();
+		Thread.sleep(5);
+		walletLedgerService.credit(USER_ID, Money.of(BigDecimal.valueOf(7)));
+
+		walletJournalService.snapshot(USER_ID);
+		walletLedgerService.credit(USER_ID, Money.of(BigDecimal.valueOf(3)));
+
+		assertThat(walletLedgerService.balance(USER_ID)).hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo("25"));
+		assertThat(walletLedgerService.balanceAt(USER_ID, afterFirstCredit))
+				.hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo("15"));
+	}
+}
@@ -0,0 +1,220 @@
+package com.clone.paypal.wallet_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({WalletLedgerService.class, WalletJournalService.class, WalletCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every operation must commit on its own thread
+class WalletLedgerServiceTests {
+
+	private static final Long USER_ID = 1L;
+	private static final int THREADS = 16;
+	private static final int OPS_PER_THREAD = 250;
+
+	@Autowired
+	private WalletLedgerService walletLedgerService;
+
+	@Autowired
+	private WalletRepository walletRepository;
+
+	@Autowired
+	private WalletCache walletCache;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void setUp() {
+		walletRepository.deleteAll();
+		createWallet(USER_ID);
+	}
+
+	@Test
+	void concurrentCreditsAreNeverLost() throws Exception {
+		runConcurrently(() -> walletLedgerService.credit(USER_ID, Money.of(BigDecimal.ONE)));
+
+		assertThat(balance()).isEqualByComparingTo(BigDecimal.valueOf(THREADS * OPS_PER_THREAD));
+	}
+
+	@Test
+	void concurrentDebitsNeverOverdraw() throws Exception {
+		walletLedgerService.credit(USER_ID, Money.of(BigDecimal.valueOf(1000)));
+		AtomicInteger succeeded = new AtomicInteger();
+
+		runConcurrently(() -> walletLedgerService.debit(USER_ID, Money.of(BigDecimal.ONE)).ifPresent(b -> succeeded.incrementAndGet()));
+
+		assertThat(succeeded.get()).isEqualTo(1000);
+		assertThat(balance()).isEqualByComparingTo(BigDecimal.ZERO);
+	}
+
+	// Two credits whose transactions are both in flight before either writes: load-modify-save keeps only
+	// one of them, the conditional update keeps both.
+	@Test
+	void conditionalUpdateKeepsCreditsThatLoadModifySaveLoses() throws Exception {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		CyclicBarrier bothLoaded = new CyclicBarrier(2);
+		runInTwoThreads(() -> tx.executeWithoutResult(status -> {
+			Wallet wallet = walletRepository.findByUserId(USER_ID).orElseThrow();
+			await(bothLoaded);
+			wallet.setBalance(wallet.getBalance().add(BigDecimal.ONE));
+			walletRepository.save(wallet);
+		}));
+		assertThat(balance()).isEqualByComparingTo(BigDecimal.ONE);
+
+		setUp();
+		CyclicBarrier bothStarted = new CyclicBarrier(2);
+		runInTwoThreads(() -> tx.executeWithoutResult(status -> {
+			await(bothStarted);
+			walletLedgerService.credit(USER_ID, Money.of(BigDecimal.ONE));
+		}));
+		assertThat(balance()).isEqualByComparingTo(BigDecimal.valueOf(2));
+	}
+
+	@Test
+	void opposingTransfersConserveMoneyWithoutDeadlock() throws Exception {
+		Long otherUserId = 2L;
+		createWallet(otherUserId);
+		walletLedgerService.credit(USER_ID, Money.of(BigDecimal.valueOf(500)));
+		walletLedgerService.credit(otherUserId, Money.of(BigDecimal.valueOf(500)));
+		AtomicInteger turn = new AtomicInteger();
+
+		runConcurrently(() -> {
+			if (turn.getAndIncrement() % 2 == 0) {
+				walletLedgerService.transfer(USER_ID, otherUserId, Money.of(BigDecimal.ONE));
+			} else {
+				walletLedgerService.transfer(otherUserId, USER_ID, Money.of(BigDecimal.ONE));
+			}
+		});
+
+		BigDecimal total = balance().add(walletRepository.findBalanceByUserId(otherUserId).orElseThrow());
+		assertThat(total).isEqualByComparingTo(BigDecimal.valueOf(1000));
+	}
+
+	@Test
+	void transferRejectsInsufficientFunds() {
+		createWallet(2L);
+		walletLedgerService.credit(USER_ID, Money.of(BigDecimal.TEN));
+
+		assertThat(walletLedgerService.transfer(USER_ID, 2L, Money.of(BigDecimal.valueOf(11)))).isEmpty();
+		assertThat(balance()).isEqualByComparingTo(BigDecimal.TEN);
+	}
+
+	@Test
+	void aTransferIdIsAppliedOnce() throws Exception {
+		createWallet(2L);
+		String transferId = "1:retried-payment";
+		// A transfer that didn't go through doesn't use up its id.
+		assertThat(walletLedgerService.transfer(USER_ID, 2L, Money.of(BigDecimal.TEN), transferId)).isEmpty();
+		walletLedgerService.credit(USER_ID, Money.of(BigDecimal.valueOf(100)));
+		AtomicInteger applied = new AtomicInteger();
+		AtomicInteger duplicates = new AtomicInteger();
+
+		runConcurrently(() -> {
+			try {
+				walletLedgerService.transfer(USER_ID, 2L, Money.of(BigDecimal.TEN), transferId).ifPresent(r -> applied.incrementAndGet());
+			} catch (DuplicateTransferException e) {
+				duplicates.incrementAndGet();
+			}
+		});
+
+		assertThat(applied).hasValue(1);
+		assertThat(duplicates).hasValue(THREADS * OPS_PER_THREAD - 1);
+		assertThat(balance()).isEqualByComparingTo(BigDecimal.valueOf(90));
+		assertThat(walletRepository.findBalanceByUserId(2L).orElseThrow()).isEqualByComparingTo(BigDecimal.TEN);
+	}
+
+	@Test
+	void cacheFollowsCommitsAndIgnoresRollbacks() {
+		walletCache.evictLocal(USER_ID);
+		walletCache.get(USER_ID, walletLedgerService::findWallet);
+
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.executeWithoutResult(status -> {
+			walletLedgerService.credit(USER_ID, Money.of(BigDecimal.valueOf(5)));
+			status.setRollbackOnly();
+		});
+		assertThat(cachedBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+
+		walletLedgerService.credit(USER_ID, Money.of(BigDecimal.valueOf(7)));
+		assertThat(cachedBalance()).isEqualByComparingTo(BigDecimal.valueOf(7));
+		assertThat(balance()).isEqualByComparingTo(BigDecimal.valueOf(7));
+	}
+
+	private void createWallet(Long userId) {
+		Wallet wallet = new Wallet();
+		wallet.setUserId(userId);
+		wallet.setBalance(BigDecimal.ZERO);
+		wallet.setCurrency("INR");
+		walletRepository.save(wallet);
+	}
+
+	private BigDecimal balance() {
+		return walletRepository.findBalanceByUserId(USER_ID).orElseThrow();
+	}
+
+	// Fails the test if the wallet isn't cached.
+	private BigDecimal cachedBalance() {
+		return walletCache.get(USER_ID, id -> {
+			throw new AssertionError("wallet " + id + " was not cached");
+		}).orElseThrow().getBalance();
+	}
+
+	private void runConcurrently(Runnable operation) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < OPS_PER_THREAD; i++) {
+						operation.run();
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private void runInTwoThreads(Runnable operation) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> first = executor.submit(operation);
+			Future<?> second = executor.submit(operation);
+			first.get(30, TimeUnit.SECONDS);
+			second.get(30, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static void await(CyclicBarrier barrier) {
+		try {
+			barrier.await(10, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
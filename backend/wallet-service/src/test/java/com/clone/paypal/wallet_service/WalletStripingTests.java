@@ -0,0 +1,157 @@
+package com.clone.paypal.wallet_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({WalletLedgerService.class, WalletJournalService.class, WalletCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalletStripingTests {
+
+	private static final Long MERCHANT_ID = 1L;
+	private static final Long CUSTOMER_ID = 2L;
+	private static final int STRIPES = 16;
+	private static final int THREADS = 16;
+	private static final int CREDITS_PER_THREAD = 250;
+
+	@Autowired
+	private WalletLedgerService walletLedgerService;
+
+	@Autowired
+	private WalletRepository walletRepository;
+
+	@Autowired
+	private WalletStripeRepository walletStripeRepository;
+
+	@BeforeEach
+	void setUp() {
+		walletStripeRepository.deleteAll();
+		walletRepository.deleteAll();
+		for (Long userId : List.of(MERCHANT_ID, CUSTOMER_ID)) {
+			Wallet wallet = new Wallet();
+			wallet.setUserId(userId);
+			wallet.setBalance(BigDecimal.ZERO);
+			wallet.setCurrency("INR");
+			walletRepository.save(wallet);
+		}
+	}
+
+	@Test
+	void hotWalletCreditThroughputWithAndWithoutStriping() throws Exception {
+		BigDecimal expected = BigDecimal.valueOf(THREADS * CREDITS_PER_THREAD);
+
+		long unstripedNanos = creditConcurrently();
+		assertThat(walletLedgerService.balance(MERCHANT_ID)).hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo(expected));
+
+		setUp();
+		walletLedgerService.configureStripes(MERCHANT_ID, STRIPES);
+		long stripedNanos = creditConcurrently();
+		assertThat(walletLedgerService.balance(MERCHANT_ID)).hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo(expected));
+
+		report("striping off", unstripedNanos);
+		report("striping on (" + STRIPES + " stripes)", stripedNanos);
+	}
+
+	@Test
+	void debitSweepsStripesWhenWalletsRowIsShort() {
+		walletLedgerService.configureStripes(MERCHANT_ID, STRIPES);
+		for (int i = 0; i < 10; i++) {
+			walletLedgerService.credit(MERCHANT_ID, Money.of(BigDecimal.TEN));
+		}
+		assertThat(walletRepository.findBalanceByUserId(MERCHANT_ID)).hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo("0"));
+
+		assertThat(walletLedgerService.debit(MERCHANT_ID, Money.of(BigDecimal.valueOf(60))))
+				.hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo("40"));
+		assertThat(walletLedgerService.debit(MERCHANT_ID, Money.of(BigDecimal.valueOf(41)))).isEmpty();
+		assertThat(walletStripeRepository.sumBalances(MERCHANT_ID)).isEqualByComparingTo("0");
+	}
+
+	@Test
+	void transfersIntoStripedWalletLandOnStripes() {
+		walletLedgerService.configureStripes(MERCHANT_ID, STRIPES);
+		walletLedgerService.credit(CUSTOMER_ID, Money.of(BigDecimal.valueOf(100)));
+
+		assertThat(walletLedgerService.transfer(CUSTOMER_ID, MERCHANT_ID, Money.of(BigDecimal.valueOf(30))))
+				.hasValueSatisfying(r -> {
+					assertThat(r.getFromBalance()).isEqualByComparingTo("70");
+					assertThat(r.getToBalance()).isEqualByComparingTo("30");
+				});
+		assertThat(walletStripeRepository.sumBalances(MERCHANT_ID)).isEqualByComparingTo("30");
+
+		walletLedgerService.configureStripes(MERCHANT_ID, 0);
+		assertThat(walletRepository.findBalanceByUserId(MERCHANT_ID)).hasValueSatisfying(b -> assertThat(b).isEqualByComparingTo("30"));
+		assertThat(walletStripeRepository.count()).isZero();
+	}
+
+	// Both wallets keep their money on stripes, so most debits have to sweep while the other side's stripes
+	// are being credited. Fails with a deadlock (or lock timeout) if stripes are locked before both wallets rows.
+	@Test
+	void stripedWalletsPayingEachOtherDoNotDeadlock() throws Exception {
+		walletLedgerService.configureStripes(MERCHANT_ID, 4);
+		walletLedgerService.configureStripes(CUSTOMER_ID, 4);
+		walletLedgerService.credit(MERCHANT_ID, Money.of(BigDecimal.valueOf(500)));
+		walletLedgerService.credit(CUSTOMER_ID, Money.of(BigDecimal.valueOf(500)));
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				Long from = t % 2 == 0 ? MERCHANT_ID : CUSTOMER_ID;
+				Long to = t % 2 == 0 ? CUSTOMER_ID : MERCHANT_ID;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 100; i++) {
+						walletLedgerService.transfer(from, to, Money.of(BigDecimal.ONE));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		BigDecimal total = walletLedgerService.balance(MERCHANT_ID).orElseThrow().add(walletLedgerService.balance(CUSTOMER_ID).orElseThrow());
+		assertThat(total).isEqualByComparingTo("1000");
+	}
+
+	private long creditConcurrently() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			long start = System.nanoTime();
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < CREDITS_PER_THREAD; i++) {
+						walletLedgerService.credit(MERCHANT_ID, Money.of(BigDecimal.ONE));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			return System.nanoTime() - start;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static void report(String label, long elapsedNanos) {
+		double creditsPerSecond = THREADS * CREDITS_PER_THREAD / (elapsedNanos / 1_000_000_000.0);
+		System.out.printf("hot wallet credits, %s: %.0f credits/sec%n", label, creditsPerSecond);
+	}
+}
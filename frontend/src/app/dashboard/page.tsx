@@ -56,6 +56,7 @@ export default function DashboardPage() {
   const [balance, setBalance] = useState(0);
   const [transactions, setTransactions] = useState<Transaction[]>([]);
   const [notifications, setNotifications] = useState<Notification[]>([]);
+  const [unreadCount, setUnreadCount] = useState(0);
   const [user, setUser] = useState<User | null>(null);
   const [showAddMoneyModal, setShowAddMoneyModal] = useState(false);
   const [showSendMoneyModal, setShowSendMoneyModal] = useState(false);
@@ -80,6 +81,26 @@ export default function DashboardPage() {
     }
   }, [user]);
 
+  // New notifications are pushed over Server-Sent Events instead of being re-fetched.
+  useEffect(() => {
+    if (!user) return;
+    const source = new EventSource(
+      `${api.defaults.baseURL}/notifications/stream?userId=${user.id}`
+    );
+    source.addEventListener("notification", (event) => {
+      const notification: Notification = JSON.parse(
+        (event as MessageEvent).data
+      );
+      setNotifications((prev) =>
+        prev.some((n) => n.id === notification.id)
+          ? prev
+          : [notification, ...prev]
+      );
+      if (!notification.read) setUnreadCount((count) => count + 1);
+    });
+    return () => source.close();
+  }, [user]);
+
   const fetchUser = async () => {
     try {
       const response = await api.get("/users/me");
@@ -113,10 +134,16 @@ export default function DashboardPage() {
 
   const fetchNotifications = async (userId: number) => {
     try {
-      const response = await api.get(`/notifications/user`, {
-        params: { id: userId },
-      });
-      setNotifications(response.data.notifications);
+      const [page, unread] = await Promise.all([
+        api.get(`/notifications/user/page`, {
+          params: { id: userId, limit: 50 },
+        }),
+        api.get(`/notifications/user/unread-count`, {
+          params: { id: userId },
+        }),
+      ]);
+      setNotifications(page.data.notifications);
+      setUnreadCount(unread.data.unread);
     } catch (err: any) {
       console.error("Failed to fetch notifications", err);
     }
@@ -148,7 +175,6 @@ export default function DashboardPage() {
         });
         fetchBalance(user.id);
         fetchTransactions(user.id);
-        fetchNotifications(user.id);
       } catch (err: any) {
         console.error("Failed to send money", err);
         setError("Failed to send money.");
@@ -156,16 +182,34 @@ export default function DashboardPage() {
     }
   };
 
+  const markNotificationsRead = async (body: {
+    ids?: number[];
+    upTo?: string;
+  }) => {
+    if (!user) return;
+    try {
+      const response = await api.post(`/notifications/user/read`, body, {
+        params: { id: user.id },
+      });
+      setUnreadCount(response.data.unread);
+    } catch (err: any) {
+      console.error("Failed to mark notifications as read", err);
+    }
+  };
+
   const handleMarkAllNotificationsAsRead = () => {
     setNotifications((prev) => prev.map((n) => ({ ...n, read: true })));
-    // In a real application, you would send an API request here to mark them as read on the server.
+    // Everything up to the newest notification we have shown, in one request.
+    if (notifications.length > 0) {
+      markNotificationsRead({ upTo: notifications[0].timestamp });
+    }
   };
 
   const handleMarkNotificationAsRead = (id: number) => {
     setNotifications((prev) =>
       prev.map((n) => (n.id === id ? { ...n, read: true } : n))
     );
-    // In a real application, you would send an API request here to mark it as read on the server.
+    markNotificationsRead({ ids: [id] });
   };
 
   const handleLogout = () => {
@@ -249,6 +293,7 @@ export default function DashboardPage() {
       userName={user.name}
       onLogout={handleLogout}
       notifications={notifications}
+      unreadNotificationCount={unreadCount}
       onMarkAllNotificationsAsRead={handleMarkAllNotificationsAsRead}
       onMarkAsRead={handleMarkNotificationAsRead}
     >
@@ -20,6 +20,7 @@ interface DashboardLayoutProps {
     timestamp: string
     read: boolean
   }[]
+  unreadNotificationCount?: number
   onMarkAllNotificationsAsRead: () => void
   onMarkAsRead: (id: number) => void // Add this line
 }
@@ -29,6 +30,7 @@ export function DashboardLayout({
   userName,
   onLogout,
   notifications,
+  unreadNotificationCount,
   onMarkAllNotificationsAsRead,
   onMarkAsRead, // Add this line
 }: DashboardLayoutProps) {
@@ -55,6 +57,7 @@ export function DashboardLayout({
               {/* Notifications Dropdown */}
               <NotificationsDropdown
                 notifications={notifications}
+                unreadCount={unreadNotificationCount}
                 onMarkAllAsRead={onMarkAllNotificationsAsRead}
                 onMarkAsRead={onMarkAsRead} // Add this line
               />
@@ -25,16 +25,19 @@ interface Notification {
 
 interface NotificationsDropdownProps {
   notifications: Notification[];
+  unreadCount?: number; // Server-side count; falls back to counting the loaded notifications
   onMarkAllAsRead: () => void;
   onMarkAsRead: (id: number) => void; // New prop for individual notification
 }
 
 export function NotificationsDropdown({
   notifications,
+  unreadCount: serverUnreadCount,
   onMarkAllAsRead,
   onMarkAsRead,
 }: NotificationsDropdownProps) {
-  const unreadCount = notifications.filter((n) => !n.read).length;
+  const unreadCount =
+    serverUnreadCount ?? notifications.filter((n) => !n.read).length;
 
   return (
     <DropdownMenu>
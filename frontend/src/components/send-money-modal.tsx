@@ -1,6 +1,6 @@
 "use client";
 
-import { useState } from "react";
+import { useEffect, useState } from "react";
 import {
   Dialog,
   DialogContent,
@@ -11,6 +11,13 @@ import {
 import { Input } from "@/components/ui/input";
 import { Button } from "@/components/ui/button";
 import { Label } from "@/components/ui/label";
+import api from "@/lib/api";
+
+interface RecipientSuggestion {
+  id: number;
+  name: string;
+  maskedEmail: string;
+}
 
 interface SendMoneyModalProps {
   show: boolean;
@@ -25,14 +32,41 @@ export function SendMoneyModal({
 }: SendMoneyModalProps) {
   const [recipientEmail, setRecipientEmail] = useState("");
   const [amount, setAmount] = useState("");
+  const [suggestions, setSuggestions] = useState<RecipientSuggestion[]>([]);
+  const [pickedEmail, setPickedEmail] = useState("");
   const quickAmounts = [500, 5000, 50000];
 
+  // Autocomplete from user-service's in-memory index; waits for a pause in typing before asking.
+  useEffect(() => {
+    const query = recipientEmail.trim();
+    if (query.length < 3 || query === pickedEmail) {
+      setSuggestions([]);
+      return;
+    }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const response = await api.get("/users/search", {
+          params: { q: query, limit: 8 },
+        });
+        if (!cancelled) setSuggestions(response.data);
+      } catch (err) {
+        if (!cancelled) setSuggestions([]);
+      }
+    }, 150);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [recipientEmail, pickedEmail]);
+
   const handleSubmit = () => {
     const numAmount = Number.parseFloat(amount);
     if (recipientEmail && !isNaN(numAmount) && numAmount > 0) {
       handleSendMoney(recipientEmail, numAmount);
       setRecipientEmail("");
       setAmount("");
+      setSuggestions([]);
       handleClose();
     }
   };
@@ -58,7 +92,36 @@ export function SendMoneyModal({
               onChange={(e) => setRecipientEmail(e.target.value)}
               className="col-span-3"
               placeholder="recipient@example.com"
+              autoComplete="off"
             />
+            {suggestions.length > 0 && (
+                <ul className="col-span-3 col-start-2 rounded-md border bg-background text-sm shadow-sm">
+                  {suggestions.map((suggestion) => (
+                    <li key={suggestion.id}>
+                      <button
+                        type="button"
+                        onClick={async () => {
+                          // Search only shows masked emails; fetch the one picked.
+                          try {
+                            const response = await api.get(`/users/id/${suggestion.id}`);
+                            setPickedEmail(response.data.email);
+                            setRecipientEmail(response.data.email);
+                          } catch (err) {
+                            // Leave what was typed.
+                          }
+                          setSuggestions([]);
+                        }}
+                        className="w-full px-3 py-2 text-left hover:bg-paypal-accent/10"
+                      >
+                        <span className="font-medium">{suggestion.name}</span>{" "}
+                        <span className="text-muted-foreground">
+                          {suggestion.maskedEmail}
+                        </span>
+                      </button>
+                    </li>
+                  ))}
+                </ul>
+              )}
           </div>
           <div className="grid grid-cols-4 items-center gap-4">
             <Label htmlFor="amount" className="text-right">